@@ -0,0 +1,68 @@
+package ru.visionary.mixing.mind_broker.amqp;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import ru.visionary.mixing.mind_broker.config.properties.ProcessingTransport;
+import ru.visionary.mixing.mind_broker.entity.ProcessingMessage;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ProcessingMessageConverter implements MessageConverter {
+    public static final String UUID_HEADER = "x-processing-uuid";
+    public static final String STYLE_HEADER = "x-processing-style";
+    public static final String STRENGTH_HEADER = "x-processing-strength";
+    public static final String IMAGE_KEY_HEADER = "x-processing-image-key";
+
+    private final MessageConverter jsonConverter;
+    private final ProcessingTransport transport;
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (transport == ProcessingTransport.BINARY && object instanceof ProcessingMessage message) {
+            byte[] body = message.image() == null ? new byte[0] : message.image();
+            messageProperties.setContentType(MessageProperties.CONTENT_TYPE_BYTES);
+            messageProperties.setContentLength(body.length);
+            messageProperties.setHeader(UUID_HEADER, message.uuid().toString());
+            messageProperties.setHeader(STYLE_HEADER, message.style());
+            if (message.strength() != null) {
+                messageProperties.setHeader(STRENGTH_HEADER, message.strength().toPlainString());
+            }
+            if (message.imageKey() != null) {
+                messageProperties.setHeader(IMAGE_KEY_HEADER, message.imageKey());
+            }
+            return new Message(body, messageProperties);
+        }
+        return jsonConverter.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        if (!MessageProperties.CONTENT_TYPE_BYTES.equals(properties.getContentType())
+                || properties.getHeader(UUID_HEADER) == null) {
+            return jsonConverter.fromMessage(message);
+        }
+
+        try {
+            Object strength = properties.getHeader(STRENGTH_HEADER);
+            Object imageKey = properties.getHeader(IMAGE_KEY_HEADER);
+            return new ProcessingMessage(
+                    UUID.fromString(properties.getHeader(UUID_HEADER).toString()),
+                    imageKey == null ? message.getBody() : null,
+                    properties.getHeader(STYLE_HEADER).toString(),
+                    strength == null ? null : new BigDecimal(strength.toString()),
+                    imageKey == null ? null : imageKey.toString()
+            );
+        } catch (Exception e) {
+            log.error("Failed to read binary processing message: {}", e.getMessage());
+            throw new MessageConversionException("Invalid binary processing message", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.visionary.mixing.mind_broker.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
+import ru.visionary.mixing.mind_broker.config.properties.MegamindProperties;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class MegamindAsyncClient {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI processUri;
+    private final Semaphore inFlight;
+
+    public MegamindAsyncClient(MegamindProperties properties, ObjectMapper objectMapper) {
+        this(
+                HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build(),
+                objectMapper,
+                URI.create(properties.async().url()).resolve("/api/v1/process"),
+                properties.async().maxInFlight()
+        );
+    }
+
+    MegamindAsyncClient(HttpClient httpClient, ObjectMapper objectMapper, URI processUri, int maxInFlight) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.processUri = processUri;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public CompletableFuture<ImageProcessingResponse> process(ImageProcessingRequest request, Duration timeout) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = HttpRequest.newBuilder(processUri)
+                    .timeout(timeout)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+                    .build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        try {
+            if (!inFlight.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("No free Megamind slot within {}", timeout);
+                return CompletableFuture.failedFuture(new ServiceException(ErrorCode.MEGAMIND_ERROR));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            response = httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return response
+                .whenComplete((r, e) -> inFlight.release())
+                .thenApply(this::decode);
+    }
+
+    private ImageProcessingResponse decode(HttpResponse<byte[]> response) {
+        if (response.statusCode() >= 400) {
+            log.error("Error on calling Megamind: {}", new String(response.body()));
+            if (response.statusCode() >= 500) {
+                throw new ServiceException(ErrorCode.MEGAMIND_ERROR);
+            }
+            throw new ServiceException(ErrorCode.INTERNAL_ERROR);
+        }
+
+        try {
+            return objectMapper.readValue(response.body(), ImageProcessingResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
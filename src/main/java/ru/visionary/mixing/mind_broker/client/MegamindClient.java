@@ -6,6 +6,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import ru.visionary.mixing.mind_broker.client.dto.GetStylesResponse;
+import ru.visionary.mixing.mind_broker.client.dto.ImageBatchProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageBatchProcessingResponse;
 import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
 import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
 
@@ -14,6 +16,9 @@ public interface MegamindClient {
     @PostMapping("/api/v1/process")
     ImageProcessingResponse process(Options options, @RequestBody ImageProcessingRequest request);
 
+    @PostMapping("/api/v1/process/batch")
+    ImageBatchProcessingResponse processBatch(Options options, @RequestBody ImageBatchProcessingRequest request);
+
     @GetMapping("/api/v1/styles")
     GetStylesResponse getStyles();
 }
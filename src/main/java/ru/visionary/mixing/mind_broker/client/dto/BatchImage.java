@@ -0,0 +1,9 @@
+package ru.visionary.mixing.mind_broker.client.dto;
+
+import java.math.BigDecimal;
+
+public record BatchImage(
+        String id,
+        byte[] image,
+        BigDecimal strength
+) {}
@@ -0,0 +1,6 @@
+package ru.visionary.mixing.mind_broker.client.dto;
+
+public record BatchProcessedImage(
+        String id,
+        byte[] processed_image
+) {}
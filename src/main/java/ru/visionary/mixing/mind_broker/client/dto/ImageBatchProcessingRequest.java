@@ -0,0 +1,9 @@
+package ru.visionary.mixing.mind_broker.client.dto;
+
+import java.util.List;
+
+public record ImageBatchProcessingRequest(
+        List<BatchImage> images,
+        String style,
+        String api_key
+) {}
@@ -0,0 +1,10 @@
+package ru.visionary.mixing.mind_broker.client.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ImageBatchProcessingResponse(
+        List<BatchProcessedImage> processed_images,
+        BigDecimal processing_time,
+        String style
+) {}
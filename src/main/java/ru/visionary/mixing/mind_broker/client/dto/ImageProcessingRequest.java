@@ -3,7 +3,7 @@ package ru.visionary.mixing.mind_broker.client.dto;
 import java.math.BigDecimal;
 
 public record ImageProcessingRequest(
-        String image,
+        byte[] image,
         String style,
         BigDecimal strength,
         String api_key
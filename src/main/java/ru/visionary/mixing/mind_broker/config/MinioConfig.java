@@ -1,5 +1,6 @@
 package ru.visionary.mixing.mind_broker.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -18,4 +19,12 @@ public class MinioConfig {
                 .credentials(properties.accessKey(), properties.secretKey())
                 .build();
     }
+
+    @Bean
+    public MinioAsyncClient minioAsyncClient() {
+        return MinioAsyncClient.builder()
+                .endpoint(properties.endpoint())
+                .credentials(properties.accessKey(), properties.secretKey())
+                .build();
+    }
 }
@@ -1,16 +1,22 @@
 package ru.visionary.mixing.mind_broker.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.visionary.mixing.mind_broker.amqp.ProcessingMessageConverter;
+import ru.visionary.mixing.mind_broker.config.properties.ListenerProperties;
 import ru.visionary.mixing.mind_broker.config.properties.RabbitProperties;
 
 @Configuration
@@ -25,7 +31,11 @@ public class RabbitConfig {
 
     @Bean
     public Queue processingQueue() {
-        return new Queue(properties.processingQueue());
+        QueueBuilder queue = QueueBuilder.durable(properties.processingQueue());
+        if (properties.processingPriority().enabled()) {
+            queue.maxPriority(properties.processingPriority().maxPriority());
+        }
+        return queue.build();
     }
 
     @Bean
@@ -35,7 +45,27 @@ public class RabbitConfig {
 
     @Bean
     public MessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+        return new ProcessingMessageConverter(new Jackson2JsonMessageConverter(), properties.processingTransport());
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory processingListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory
+    ) {
+        ListenerProperties listener = properties.processingListener();
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(listener.concurrency());
+        factory.setMaxConcurrentConsumers(listener.maxConcurrency());
+        factory.setPrefetchCount(listener.prefetch());
+        factory.setConsecutiveActiveTrigger(listener.consecutiveActiveTrigger());
+        factory.setConsecutiveIdleTrigger(listener.consecutiveIdleTrigger());
+        factory.setStartConsumerMinInterval(listener.startConsumerMinInterval().toMillis());
+        factory.setStopConsumerMinInterval(listener.stopConsumerMinInterval().toMillis());
+        return factory;
     }
 
     @Bean
@@ -43,8 +43,10 @@ public class SecurityConfig {
 
     private static final String[] WITHOUT_AUTHORIZATION_ONLY_GET = new String[] {
             "/api/v1/image/*",
+            "/api/v1/image/*/file",
             "/api/v1/user/*",
             "/api/v1/user/*/images",
+            "/api/v1/user/*/avatar",
             "/api/v1/user/*/follows",
             "/api/v1/user/*/followers",
             "/api/v1/styles",
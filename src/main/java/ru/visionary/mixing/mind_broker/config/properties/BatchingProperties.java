@@ -0,0 +1,11 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+public record BatchingProperties(
+        boolean enabled,
+        int maxSize,
+        Duration window,
+        BigDecimal strengthStep
+) {}
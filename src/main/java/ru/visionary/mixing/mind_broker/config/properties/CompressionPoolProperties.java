@@ -0,0 +1,10 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import java.time.Duration;
+
+public record CompressionPoolProperties(
+        int threads,
+        int queueCapacity,
+        long memoryBudget,
+        Duration admissionTimeout
+) {}
@@ -2,7 +2,10 @@ package ru.visionary.mixing.mind_broker.config.properties;
 
 public record CompressionProperties(
         boolean enabled,
+        String format,
         double quality,
+        Integer targetSize,
+        double minQuality,
         int maxWidth,
         int maxHeight,
         int minLength
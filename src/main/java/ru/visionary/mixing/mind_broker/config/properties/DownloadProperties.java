@@ -0,0 +1,7 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import java.time.Duration;
+
+public record DownloadProperties(
+        Duration maxAge
+) {}
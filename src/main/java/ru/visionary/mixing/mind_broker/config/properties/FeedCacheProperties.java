@@ -0,0 +1,13 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.feed-cache")
+public record FeedCacheProperties(
+        boolean enabled,
+        int pages,
+        int maxSize,
+        Duration ttl
+) {}
@@ -0,0 +1,11 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.image")
+public record ImageProperties(
+        ImageValidationProperties validation,
+        CompressionPoolProperties compressionPool,
+        RenditionProperties renditions,
+        DownloadProperties download
+) {}
@@ -0,0 +1,8 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.likes")
+public record LikeProperties(
+        String flushLikeCountsJobCron
+) {}
@@ -0,0 +1,13 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import java.time.Duration;
+
+public record ListenerProperties(
+        int concurrency,
+        int maxConcurrency,
+        int prefetch,
+        int consecutiveActiveTrigger,
+        int consecutiveIdleTrigger,
+        Duration startConsumerMinInterval,
+        Duration stopConsumerMinInterval
+) {}
@@ -0,0 +1,7 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+public record MegamindAsyncProperties(
+        boolean enabled,
+        String url,
+        int maxInFlight
+) {}
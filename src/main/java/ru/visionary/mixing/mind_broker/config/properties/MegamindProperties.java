@@ -6,5 +6,6 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public record MegamindProperties(
         String apiKey,
         Integer processingTimeout,
-        String updateStylesJobCron
+        String updateStylesJobCron,
+        MegamindAsyncProperties async
 ) {}
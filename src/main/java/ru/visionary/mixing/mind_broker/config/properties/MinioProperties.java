@@ -1,12 +1,20 @@
 package ru.visionary.mixing.mind_broker.config.properties;
 
+import jakarta.validation.Valid;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
 
+@Validated
 @ConfigurationProperties(prefix = "app.minio")
 public record MinioProperties (
     String endpoint,
     String accessKey,
     String secretKey,
     String imagesBucket,
-    String avatarsBucket
+    String avatarsBucket,
+    String stagingBucket,
+    String resultsBucket,
+    String uploadsBucket,
+    boolean createBuckets,
+    @Valid MultipartUploadProperties multipart
 ) {}
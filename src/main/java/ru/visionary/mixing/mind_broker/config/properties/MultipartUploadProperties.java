@@ -0,0 +1,18 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import org.springframework.util.unit.DataSize;
+
+public record MultipartUploadProperties(
+        boolean enabled,
+        DataSize threshold,
+        DataSize partSize,
+        int concurrency
+) {
+    private static final DataSize MIN_PART_SIZE = DataSize.ofMegabytes(5);
+
+    @AssertTrue(message = "part-size must be at least 5MB")
+    public boolean isPartSizeValid() {
+        return !enabled || partSize != null && partSize.compareTo(MIN_PART_SIZE) >= 0;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.object-deletion")
+public record ObjectDeletionProperties(
+        int batchSize,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        String deleteObjectsJobCron
+) {}
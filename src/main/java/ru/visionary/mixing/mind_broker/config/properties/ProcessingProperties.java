@@ -7,7 +7,10 @@ import java.time.Duration;
 @ConfigurationProperties(prefix = "app.processing")
 public record ProcessingProperties(
         Duration maxTimeFromStart,
+        Integer maxActivePerUser,
         CompressionProperties compression,
+        StagingProperties staging,
+        BatchingProperties batching,
         Integer resultTtlMinutes,
         String clearOldResultJobCron,
         Integer maxProcessingTimeMinutes,
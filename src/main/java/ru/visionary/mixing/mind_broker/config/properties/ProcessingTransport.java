@@ -0,0 +1,6 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+public enum ProcessingTransport {
+    JSON,
+    BINARY
+}
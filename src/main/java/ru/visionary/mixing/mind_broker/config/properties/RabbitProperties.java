@@ -5,5 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "app.rabbit")
 public record RabbitProperties (
         String processingExchange,
-        String processingQueue
+        String processingQueue,
+        ProcessingTransport processingTransport,
+        ListenerProperties processingListener,
+        PriorityProperties processingPriority
 ) {}
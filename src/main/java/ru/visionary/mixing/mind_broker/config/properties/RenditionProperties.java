@@ -0,0 +1,10 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import java.util.List;
+
+public record RenditionProperties(
+        boolean enabled,
+        List<Integer> sizes,
+        String format,
+        double quality
+) {}
@@ -0,0 +1,6 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+public record StagingProperties(
+        boolean enabled,
+        String clearStagedImagesJobCron
+) {}
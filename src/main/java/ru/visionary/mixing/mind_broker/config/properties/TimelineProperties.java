@@ -0,0 +1,10 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.timeline")
+public record TimelineProperties(
+        boolean enabled,
+        int capacity,
+        long fanOutLimit
+) {}
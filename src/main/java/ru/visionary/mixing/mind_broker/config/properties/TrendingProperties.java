@@ -0,0 +1,16 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.trending")
+public record TrendingProperties(
+        Duration halfLife,
+        double likeWeight,
+        double commentWeight,
+        int size,
+        double minScore,
+        Duration commitLag,
+        String updateTrendingJobCron
+) {}
@@ -0,0 +1,14 @@
+package ru.visionary.mixing.mind_broker.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.upload")
+public record UploadProperties(
+        Duration expiry,
+        DataSize maxSize,
+        int clearBatchSize,
+        String clearExpiredUploadsJobCron
+) {}
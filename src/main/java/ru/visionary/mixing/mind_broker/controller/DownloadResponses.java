@@ -0,0 +1,46 @@
+package ru.visionary.mixing.mind_broker.controller;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.visionary.mixing.mind_broker.entity.Download;
+
+final class DownloadResponses {
+    private static final String BYTES = "bytes";
+
+    private DownloadResponses() {
+    }
+
+    static ResponseEntity<Resource> toResponse(Download download) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(download.status())
+                .header(HttpHeaders.ACCEPT_RANGES, BYTES);
+
+        if (download.status() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+            return builder
+                    .header(HttpHeaders.CONTENT_RANGE, BYTES + " */" + download.object().size())
+                    .build();
+        }
+
+        builder.eTag(download.etag());
+        if (download.cacheControl() != null) {
+            builder.cacheControl(download.cacheControl());
+        }
+        if (download.status() == HttpStatus.NOT_MODIFIED) {
+            return builder.build();
+        }
+        if (download.status() == HttpStatus.PARTIAL_CONTENT) {
+            builder.header(HttpHeaders.CONTENT_RANGE, BYTES + " " + download.offset() + "-"
+                    + (download.offset() + download.length() - 1) + "/" + download.object().size());
+        }
+
+        return builder
+                .contentType(download.object().contentType() != null
+                        ? MediaType.parseMediaType(download.object().contentType())
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(download.length())
+                .body(new InputStreamResource(download.stream()));
+    }
+}
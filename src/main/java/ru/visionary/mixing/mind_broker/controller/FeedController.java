@@ -13,7 +13,7 @@ public class FeedController implements FeedApi {
     private final FeedService feedService;
 
     @Override
-    public ResponseEntity<GetImagesResponse> getFeed(String sort, Integer size, Integer page) {
-        return ResponseEntity.ok(feedService.getFeed(sort, size, page));
+    public ResponseEntity<GetImagesResponse> getFeed(String sort, Integer size, Integer page, String cursor) {
+        return ResponseEntity.ok(feedService.getFeed(sort, size, page, cursor));
     }
 }
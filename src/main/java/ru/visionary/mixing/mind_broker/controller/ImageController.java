@@ -1,6 +1,7 @@
 package ru.visionary.mixing.mind_broker.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,7 +10,9 @@ import ru.visionary.mixing.generated.model.GetImagesResponse;
 import ru.visionary.mixing.generated.model.ImageResponse;
 import ru.visionary.mixing.generated.model.SaveImageResponse;
 import ru.visionary.mixing.generated.model.UpdateImageRequest;
+import ru.visionary.mixing.generated.model.UploadResponse;
 import ru.visionary.mixing.mind_broker.service.ImageService;
+import ru.visionary.mixing.mind_broker.service.UploadService;
 
 import java.util.UUID;
 
@@ -17,12 +20,23 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ImageController implements ImageApi {
     private final ImageService imageService;
+    private final UploadService uploadService;
 
     @Override
     public ResponseEntity<SaveImageResponse> saveImage(String protection, MultipartFile image) {
         return ResponseEntity.ok(imageService.saveImage(image, protection));
     }
 
+    @Override
+    public ResponseEntity<UploadResponse> createImageUpload(String protection) {
+        return ResponseEntity.ok(uploadService.createImageUpload(protection));
+    }
+
+    @Override
+    public ResponseEntity<SaveImageResponse> completeImageUpload(UUID uuid) {
+        return ResponseEntity.ok(uploadService.completeImageUpload(uuid));
+    }
+
     @Override
     public ResponseEntity<GetImagesResponse> getCurrentUserImages(Integer size, Integer page, String protection) {
         return ResponseEntity.ok(imageService.getImagesForCurrentUser(size, page, protection));
@@ -38,6 +52,11 @@ public class ImageController implements ImageApi {
         return ResponseEntity.ok(imageService.getImage(uuid));
     }
 
+    @Override
+    public ResponseEntity<Resource> downloadImage(UUID uuid, Integer size, String range, String ifNoneMatch) {
+        return DownloadResponses.toResponse(imageService.downloadImage(uuid, size, range, ifNoneMatch));
+    }
+
     @Override
     public ResponseEntity<Void> updateImage(UUID uuid, UpdateImageRequest updateImageRequest) {
         imageService.updateImage(uuid, updateImageRequest);
@@ -1,6 +1,9 @@
 package ru.visionary.mixing.mind_broker.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -8,6 +11,7 @@ import ru.visionary.mixing.generated.api.ProcessingApi;
 import ru.visionary.mixing.generated.model.ProcessingImageResponse;
 import ru.visionary.mixing.generated.model.ProcessingStatusResponse;
 import ru.visionary.mixing.generated.model.StylesResponse;
+import ru.visionary.mixing.mind_broker.entity.StoredObject;
 import ru.visionary.mixing.mind_broker.service.ProcessingService;
 import ru.visionary.mixing.mind_broker.service.StyleService;
 
@@ -30,6 +34,15 @@ public class ProcessingController implements ProcessingApi {
         return ResponseEntity.ok(processingService.getStatus(uuid));
     }
 
+    @Override
+    public ResponseEntity<Resource> getResult(UUID uuid) {
+        StoredObject result = processingService.getResult(uuid);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(result.contentType()))
+                .contentLength(result.size())
+                .body(new InputStreamResource(result.stream()));
+    }
+
     @Override
     public ResponseEntity<StylesResponse> styles() {
         return ResponseEntity.ok(styleService.getStyles());
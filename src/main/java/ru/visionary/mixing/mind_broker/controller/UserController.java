@@ -1,27 +1,49 @@
 package ru.visionary.mixing.mind_broker.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import ru.visionary.mixing.generated.api.UserApi;
+import ru.visionary.mixing.generated.model.UploadResponse;
 import ru.visionary.mixing.generated.model.UserResponse;
 import ru.visionary.mixing.mind_broker.service.FollowService;
 import ru.visionary.mixing.mind_broker.service.ImageService;
+import ru.visionary.mixing.mind_broker.service.UploadService;
 import ru.visionary.mixing.mind_broker.service.UserService;
 
+import java.util.UUID;
+
 @RestController
 @RequiredArgsConstructor
 public class UserController implements UserApi {
     private final UserService userService;
     private final ImageService imageService;
     private final FollowService followService;
+    private final UploadService uploadService;
 
     @Override
     public ResponseEntity<UserResponse> getUser(Long userId) {
         return ResponseEntity.ok(userService.getUser(userId));
     }
 
+    @Override
+    public ResponseEntity<Resource> downloadAvatar(Long userId, Integer size, String range, String ifNoneMatch) {
+        return DownloadResponses.toResponse(userService.downloadAvatar(userId, size, range, ifNoneMatch));
+    }
+
+    @Override
+    public ResponseEntity<UploadResponse> createAvatarUpload() {
+        return ResponseEntity.ok(uploadService.createAvatarUpload());
+    }
+
+    @Override
+    public ResponseEntity<Void> completeAvatarUpload(UUID uuid) {
+        uploadService.completeAvatarUpload(uuid);
+        return ResponseEntity.ok().build();
+    }
+
     @Override
     public ResponseEntity<UserResponse> getCurrentUser() {
         return ResponseEntity.ok(userService.getCurrentUser());
@@ -0,0 +1,35 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+
+import java.io.InputStream;
+
+public record Download(
+        HttpStatus status,
+        StoredObjectInfo object,
+        CacheControl cacheControl,
+        long offset,
+        long length,
+        InputStream stream
+) {
+    public static Download full(StoredObjectInfo object, CacheControl cacheControl, InputStream stream) {
+        return new Download(HttpStatus.OK, object, cacheControl, 0, object.size(), stream);
+    }
+
+    public static Download partial(StoredObjectInfo object, CacheControl cacheControl, long offset, long length, InputStream stream) {
+        return new Download(HttpStatus.PARTIAL_CONTENT, object, cacheControl, offset, length, stream);
+    }
+
+    public static Download notModified(StoredObjectInfo object, CacheControl cacheControl) {
+        return new Download(HttpStatus.NOT_MODIFIED, object, cacheControl, 0, 0, null);
+    }
+
+    public static Download rangeNotSatisfiable(StoredObjectInfo object) {
+        return new Download(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, object, null, 0, 0, null);
+    }
+
+    public String etag() {
+        return "\"" + object.etag() + "\"";
+    }
+}
@@ -0,0 +1,9 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import java.util.Set;
+
+public record FeedChangedEvent(Set<FeedSortType> sorts) {
+    public static FeedChangedEvent images() {
+        return new FeedChangedEvent(Set.of(FeedSortType.NEW, FeedSortType.POPULAR));
+    }
+}
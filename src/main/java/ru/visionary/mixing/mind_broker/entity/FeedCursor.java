@@ -0,0 +1,29 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record FeedCursor(
+        FeedSortType sort,
+        long likes,
+        LocalDateTime createdAt,
+        UUID id
+) {
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    public static FeedCursor first(FeedSortType sort) {
+        return new FeedCursor(sort, Long.MAX_VALUE, LocalDateTime.MAX, MAX_ID);
+    }
+
+    public static FeedCursor at(FeedSortType sort, UUID id) {
+        return new FeedCursor(sort, 0, LocalDateTime.MIN, id);
+    }
+
+    public static FeedCursor after(FeedSortType sort, Image image) {
+        return new FeedCursor(sort, image.likeCount() != null ? image.likeCount() : 0, image.createdAt(), image.id());
+    }
+
+    public boolean isFirst() {
+        return MAX_ID.equals(id);
+    }
+}
@@ -3,5 +3,6 @@ package ru.visionary.mixing.mind_broker.entity;
 public enum FeedSortType {
     NEW,
     POPULAR,
-    FOLLOW
+    FOLLOW,
+    TRENDING
 }
@@ -3,6 +3,7 @@ package ru.visionary.mixing.mind_broker.entity;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Builder
@@ -10,5 +11,12 @@ public record Image (
     UUID id,
     User owner,
     Protection protection,
-    LocalDateTime createdAt
-) {}
+    LocalDateTime createdAt,
+    List<Integer> renditions,
+    UUID content,
+    Long likeCount
+) {
+    public UUID storageKey() {
+        return content != null ? content : id;
+    }
+}
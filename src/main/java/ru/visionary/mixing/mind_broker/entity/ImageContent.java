@@ -0,0 +1,14 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record ImageContent(
+        UUID id,
+        String hash,
+        int refCount,
+        List<Integer> renditions
+) {}
@@ -0,0 +1,16 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+public record ImageHeader(
+        String format,
+        int width,
+        int height,
+        int bitsPerPixel
+) {
+    public long pixels() {
+        return (long) width * height;
+    }
+
+    public ImageHeader subsampled(int factor) {
+        return new ImageHeader(format, (width + factor - 1) / factor, (height + factor - 1) / factor, bitsPerPixel);
+    }
+}
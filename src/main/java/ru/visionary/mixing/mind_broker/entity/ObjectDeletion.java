@@ -0,0 +1,11 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import lombok.Builder;
+
+@Builder
+public record ObjectDeletion(
+        Long id,
+        String bucket,
+        String key,
+        int attempts
+) {}
@@ -0,0 +1,42 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public record PreparedImage(
+        ImageHeader header,
+        String contentType,
+        long size,
+        byte[] data,
+        MultipartFile source,
+        String hash,
+        List<Rendition> renditions
+) {
+    public static PreparedImage original(ImageHeader header, MultipartFile source) {
+        return original(header, source, null, List.of());
+    }
+
+    public static PreparedImage original(ImageHeader header, MultipartFile source, String hash, List<Rendition> renditions) {
+        return new PreparedImage(header, source.getContentType(), source.getSize(), null, source, hash, renditions);
+    }
+
+    public static PreparedImage encoded(ImageHeader header, String contentType, byte[] data) {
+        return new PreparedImage(header, contentType, data.length, data, null, null, List.of());
+    }
+
+    public List<Integer> renditionSizes() {
+        return renditions.stream().map(Rendition::size).toList();
+    }
+
+    public InputStream openStream() throws IOException {
+        return data != null ? new ByteArrayInputStream(data) : source.getInputStream();
+    }
+
+    public byte[] bytes() throws IOException {
+        return data != null ? data : source.getBytes();
+    }
+}
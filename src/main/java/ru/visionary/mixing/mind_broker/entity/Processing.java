@@ -13,5 +13,6 @@ public record Processing(
         LocalDateTime startTime,
         ProcessingStatus status,
         LocalDateTime statusAt,
-        String result
+        String result,
+        String stagedImage
 ) {}
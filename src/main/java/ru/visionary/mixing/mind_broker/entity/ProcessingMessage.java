@@ -1,5 +1,6 @@
 package ru.visionary.mixing.mind_broker.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 
 import java.math.BigDecimal;
@@ -8,7 +9,8 @@ import java.util.UUID;
 @Builder
 public record ProcessingMessage(
         UUID uuid,
-        String base64Image,
+        @JsonProperty("base64Image") byte[] image,
         String style,
-        BigDecimal strength
+        BigDecimal strength,
+        String imageKey
 ) {}
@@ -4,7 +4,7 @@ import lombok.Builder;
 
 @Builder
 public record ProcessingResultMessage(
-        String base64Image,
+        String resultUrl,
         ProcessingStatus processingStatus,
         Integer errorCode,
         String errorMessage
@@ -0,0 +1,7 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+public record Rendition(
+        int size,
+        String contentType,
+        byte[] data
+) {}
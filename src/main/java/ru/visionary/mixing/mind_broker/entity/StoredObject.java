@@ -0,0 +1,9 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import java.io.InputStream;
+
+public record StoredObject(
+        InputStream stream,
+        long size,
+        String contentType
+) {}
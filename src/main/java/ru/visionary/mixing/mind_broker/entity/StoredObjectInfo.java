@@ -0,0 +1,9 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+public record StoredObjectInfo(
+        String bucket,
+        String key,
+        long size,
+        String contentType,
+        String etag
+) {}
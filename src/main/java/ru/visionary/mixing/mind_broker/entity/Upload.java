@@ -0,0 +1,16 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+public record Upload(
+        UUID id,
+        User owner,
+        UploadTarget target,
+        Protection protection,
+        LocalDateTime createdAt,
+        LocalDateTime expiresAt
+) {}
@@ -0,0 +1,6 @@
+package ru.visionary.mixing.mind_broker.entity;
+
+public enum UploadTarget {
+    IMAGE,
+    AVATAR
+}
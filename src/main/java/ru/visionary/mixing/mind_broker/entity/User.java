@@ -17,6 +17,7 @@ public record User (
     String email,
     String password,
     UUID avatar,
+    List<Integer> avatarRenditions,
     String description,
     LocalDateTime createdAt,
     boolean admin,
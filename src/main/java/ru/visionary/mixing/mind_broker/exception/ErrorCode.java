@@ -29,13 +29,20 @@ public enum ErrorCode {
     ALREADY_FOLLOWING(-20, "Already following", HttpStatus.CONFLICT),
     NOT_FOLLOWING(-21, "Not following", HttpStatus.CONFLICT),
     PROCESSING_NOT_FOUND(-22, "Processing request not found", HttpStatus.NOT_FOUND),
+    PROCESSING_RESULT_NOT_FOUND(-23, "Processing result not found", HttpStatus.NOT_FOUND),
+    TOO_MANY_PROCESSING(-24, "Too many active processing requests", HttpStatus.TOO_MANY_REQUESTS),
+    IMAGE_DIMENSIONS_TOO_LARGE(-25, "Image dimensions are too large", HttpStatus.PAYLOAD_TOO_LARGE),
+    IMAGE_PROCESSING_OVERLOADED(-26, "Image processing is overloaded, try again later", HttpStatus.TOO_MANY_REQUESTS),
+    FILE_NOT_FOUND(-27, "File not found", HttpStatus.NOT_FOUND),
+    UPLOAD_NOT_FOUND(-28, "Upload not found or expired", HttpStatus.NOT_FOUND),
     DATABASE_EXCEPTION(-100, "Database exception", HttpStatus.INTERNAL_SERVER_ERROR),
     FAILED_UPLOAD_MINIO(-101, "Failed upload file to MinIO", HttpStatus.INTERNAL_SERVER_ERROR),
     FAILED_DELETE_MINIO(-102, "Failed delete file from MinIO", HttpStatus.INTERNAL_SERVER_ERROR),
     FAILED_PUSH_TO_RABBIT(-103, "Failed push message to RabbitMQ", HttpStatus.INTERNAL_SERVER_ERROR),
     MEGAMIND_ERROR(-104, "Error on megamind", HttpStatus.INTERNAL_SERVER_ERROR),
     INTERNAL_ERROR(-105, "Internal error", HttpStatus.INTERNAL_SERVER_ERROR),
-    RABBIT_ERROR(-105, "Rabbit exception", HttpStatus.INTERNAL_SERVER_ERROR);
+    RABBIT_ERROR(-105, "Rabbit exception", HttpStatus.INTERNAL_SERVER_ERROR),
+    FAILED_DOWNLOAD_MINIO(-106, "Failed download file from MinIO", HttpStatus.INTERNAL_SERVER_ERROR);
 
     private final int errorCode;
     private final String message;
@@ -0,0 +1,33 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.visionary.mixing.mind_broker.config.properties.UploadProperties;
+import ru.visionary.mixing.mind_broker.repository.UploadRepository;
+import ru.visionary.mixing.mind_broker.service.ObjectDeletionService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClearExpiredUploadsJob {
+    private final UploadRepository uploadRepository;
+    private final UploadProperties uploadProperties;
+    private final ObjectDeletionService objectDeletionService;
+
+    @Transactional
+    @Scheduled(cron = "${app.upload.clear-expired-uploads-job-cron}")
+    public void clearExpiredUploads() {
+        List<UUID> uploads = uploadRepository.deleteExpired(LocalDateTime.now(), uploadProperties.clearBatchSize());
+        uploads.forEach(objectDeletionService::deleteUpload);
+        if (!uploads.isEmpty()) {
+            log.info("Cleared {} expired uploads", uploads.size());
+        }
+    }
+}
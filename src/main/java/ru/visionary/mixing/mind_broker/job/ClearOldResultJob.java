@@ -4,10 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.visionary.mixing.mind_broker.config.properties.ProcessingProperties;
 import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
+import ru.visionary.mixing.mind_broker.service.ObjectDeletionService;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -15,10 +18,16 @@ import java.time.LocalDateTime;
 public class ClearOldResultJob {
     private final ProcessingRepository processingRepository;
     private final ProcessingProperties processingProperties;
+    private final ObjectDeletionService objectDeletionService;
 
+    @Transactional
     @Scheduled(cron = "${app.processing.clear-old-result-job-cron}")
     public void clearOldResults() {
         LocalDateTime oldDate = LocalDateTime.now().minusMinutes(processingProperties.resultTtlMinutes());
-        processingRepository.clearResultWhereLoadedBefore(oldDate);
+        List<String> results = processingRepository.clearResultWhereLoadedBefore(oldDate);
+        if (!results.isEmpty()) {
+            objectDeletionService.deleteResults(results);
+            log.info("Cleared {} old processing results", results.size());
+        }
     }
 }
@@ -0,0 +1,44 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
+import ru.visionary.mixing.mind_broker.service.MinioService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClearStagedImagesJob {
+    private static final int BATCH_SIZE = 100;
+
+    private final ProcessingRepository processingRepository;
+    private final MinioService minioService;
+
+    @Scheduled(cron = "${app.processing.staging.clear-staged-images-job-cron}")
+    public void clearStagedImages() {
+        List<String> stagedImages = processingRepository.findFinishedStagedImages(BATCH_SIZE);
+        if (stagedImages.isEmpty()) {
+            return;
+        }
+
+        List<String> deleted = new ArrayList<>();
+        for (String stagedImage : stagedImages) {
+            try {
+                minioService.deleteStagedImage(stagedImage);
+                deleted.add(stagedImage);
+            } catch (Exception e) {
+                log.warn("Failed to delete staged image {}: {}", stagedImage, e.getMessage());
+            }
+        }
+
+        if (!deleted.isEmpty()) {
+            processingRepository.clearStagedImages(deleted);
+        }
+        log.info("Cleared {} of {} staged images", deleted.size(), stagedImages.size());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.visionary.mixing.mind_broker.config.properties.ObjectDeletionProperties;
+import ru.visionary.mixing.mind_broker.entity.ObjectDeletion;
+import ru.visionary.mixing.mind_broker.repository.ObjectDeletionRepository;
+import ru.visionary.mixing.mind_broker.service.MinioService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeleteObjectsJob {
+    private final ObjectDeletionRepository objectDeletionRepository;
+    private final ObjectDeletionProperties properties;
+    private final MinioService minioService;
+
+    @Transactional
+    @Scheduled(cron = "${app.object-deletion.delete-objects-job-cron}")
+    public void deleteObjects() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ObjectDeletion> deletions = objectDeletionRepository.lockDue(now, properties.batchSize());
+        if (deletions.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<ObjectDeletion>> byBucket = deletions.stream()
+                .collect(Collectors.groupingBy(ObjectDeletion::bucket));
+        List<Long> deleted = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        byBucket.forEach((bucket, bucketDeletions) -> {
+            Set<String> failedKeys;
+            try {
+                failedKeys = new HashSet<>(minioService.removeObjects(
+                        bucket, bucketDeletions.stream().map(ObjectDeletion::key).toList()));
+            } catch (Exception e) {
+                log.warn("Failed to delete {} files from MinIO bucket {}: {}", bucketDeletions.size(), bucket, e.getMessage());
+                failedKeys = bucketDeletions.stream().map(ObjectDeletion::key).collect(Collectors.toSet());
+            }
+            for (ObjectDeletion deletion : bucketDeletions) {
+                (failedKeys.contains(deletion.key()) ? failed : deleted).add(deletion.id());
+            }
+        });
+
+        objectDeletionRepository.deleteByIds(deleted);
+        objectDeletionRepository.reschedule(failed, now, properties.initialBackoff(), properties.maxBackoff());
+        log.info("Deleted {} of {} scheduled files", deleted.size(), deletions.size());
+    }
+}
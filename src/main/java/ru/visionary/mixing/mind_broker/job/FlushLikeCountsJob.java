@@ -0,0 +1,22 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.repository.LikeCounter;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlushLikeCountsJob {
+    private final LikeCounter likeCounter;
+
+    @Scheduled(cron = "${app.likes.flush-like-counts-job-cron}")
+    public void flushLikeCounts() {
+        int flushed = likeCounter.flush();
+        if (flushed > 0) {
+            log.debug("Flushed like counts of {} images", flushed);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.service.TrendingService;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UpdateTrendingJob {
+    private final TrendingService trendingService;
+
+    @PostConstruct
+    private void initialLoad() {
+        try {
+            trendingService.refreshSnapshot();
+        } catch (Exception e) {
+            log.error("Error on loading trending snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.trending.update-trending-job-cron}")
+    public void updateTrending() {
+        try {
+            trendingService.updateScores();
+            trendingService.refreshSnapshot();
+        } catch (Exception e) {
+            log.error("Error on updating trending: {}", e.getMessage());
+        }
+    }
+}
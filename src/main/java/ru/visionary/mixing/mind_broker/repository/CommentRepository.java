@@ -1,13 +1,16 @@
 package ru.visionary.mixing.mind_broker.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.visionary.mixing.mind_broker.entity.Comment;
 import ru.visionary.mixing.mind_broker.repository.mapper.CommentRowMapper;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Repository
@@ -31,6 +34,13 @@ public class CommentRepository {
         OFFSET :size * :page
         """;
 
+    private static final String COUNT_BY_IMAGES = """
+        SELECT image, count(*) AS count
+        FROM comment
+        WHERE image IN (:images)
+        GROUP BY image
+        """;
+
     public void save(Comment comment) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("author", comment.author().id())
@@ -48,4 +58,14 @@ public class CommentRepository {
 
         return jdbcTemplate.query(FIND_BY_IMAGE, params, rowMapper);
     }
+
+    public Map<UUID, Long> countByImages(List<UUID> imageUuids) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("images", imageUuids);
+
+        Map<UUID, Long> counts = new HashMap<>();
+        jdbcTemplate.query(COUNT_BY_IMAGES, params,
+                (RowCallbackHandler) rs -> counts.put(rs.getObject("image", UUID.class), rs.getLong("count")));
+        return counts;
+    }
 }
@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
 import ru.visionary.mixing.mind_broker.entity.Image;
 import ru.visionary.mixing.mind_broker.repository.mapper.ImageRowMapper;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 @Repository
@@ -17,7 +19,7 @@ public class FeedRepository {
     private final ImageRowMapper imageRowMapper;
 
     private static final String FEED_BY_NEW = """
-            SELECT i.*, u.nickname, u.avatar, u.active
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
             FROM image i
                 JOIN public.users u on i.owner = u.id
             WHERE protection = 'public'::protection
@@ -28,20 +30,18 @@ public class FeedRepository {
             """;
 
     private static final String FEED_BY_POPULAR = """
-            SELECT i.*, u.nickname, u.avatar, u.active
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
             FROM image i
                 JOIN public.users u on i.owner = u.id
-                LEFT JOIN likes l on i.id = l.image
             WHERE i.protection = 'public'::protection
                 AND (:currentUser::bigint IS NULL OR u.id != :currentUser)
-            GROUP BY i.id, i.created_at, u.id
-            ORDER BY count(l.*) DESC, i.created_at DESC
+            ORDER BY i.like_count DESC, i.created_at DESC, i.id DESC
             LIMIT :size
             OFFSET :size * :page
             """;
 
     private static final String FEED_BY_FOLLOW = """
-            SELECT i.*, u.nickname, u.avatar, u.active
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
             FROM follow f
                 JOIN users u on f.follow = u.id
                 JOIN image i on u.id = i.owner
@@ -52,6 +52,132 @@ public class FeedRepository {
             OFFSET :size * :page
             """;
 
+    private static final String FEED_BY_NEW_AFTER = """
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
+            FROM image i
+                JOIN public.users u on i.owner = u.id
+            WHERE i.protection = 'public'::protection
+                AND (:currentUser::bigint IS NULL OR u.id != :currentUser)
+                AND (i.created_at, i.id) < (:createdAt, :id)
+            ORDER BY i.created_at DESC, i.id DESC
+            LIMIT :size
+            """;
+
+    private static final String FEED_BY_POPULAR_AFTER = """
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
+            FROM image i
+                JOIN public.users u on i.owner = u.id
+            WHERE i.protection = 'public'::protection
+                AND (:currentUser::bigint IS NULL OR u.id != :currentUser)
+                AND (i.like_count, i.created_at, i.id) < (:likes, :createdAt, :id)
+            ORDER BY i.like_count DESC, i.created_at DESC, i.id DESC
+            LIMIT :size
+            """;
+
+    private static final String FEED_BY_FOLLOW_AFTER = """
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
+            FROM follow f
+                JOIN users u on f.follow = u.id
+                JOIN image i on u.id = i.owner
+            WHERE f.follower = :currentUser
+                AND i.protection = 'public'::protection
+                AND (i.created_at, i.id) < (:createdAt, :id)
+            ORDER BY i.created_at DESC, i.id DESC
+            LIMIT :size
+            """;
+
+    private static final String FEED_BY_TIMELINE = """
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
+            FROM (
+                (SELECT t.image AS id
+                FROM timeline t
+                WHERE t.user_id = :currentUser
+                    AND (t.created_at, t.image) < (:createdAt, :id)
+                ORDER BY t.created_at DESC, t.image DESC
+                LIMIT :size)
+                UNION
+                (SELECT i.id
+                FROM follow f
+                    JOIN image i on f.follow = i.owner
+                WHERE f.follower = :currentUser
+                    AND i.protection = 'public'::protection
+                    AND NOT i.fanned_out
+                    AND (i.created_at, i.id) < (:createdAt, :id)
+                    AND (i.created_at, i.id) >= (
+                        SELECT b.created_at, b.image
+                        FROM timeline b
+                        WHERE b.user_id = :currentUser
+                        ORDER BY b.created_at, b.image
+                        LIMIT 1)
+                ORDER BY i.created_at DESC, i.id DESC
+                LIMIT :size)
+            ) e
+                JOIN image i on e.id = i.id
+                JOIN users u on i.owner = u.id
+            WHERE i.protection = 'public'::protection
+            ORDER BY i.created_at DESC, i.id DESC
+            LIMIT :size
+            """;
+
+    private static final String FEED_BY_IDS = """
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
+            FROM image i
+                JOIN public.users u on i.owner = u.id
+            WHERE i.id IN (:ids)
+                AND i.protection = 'public'::protection
+                AND (:currentUser::bigint IS NULL OR u.id != :currentUser)
+            """;
+
+    public List<Image> getFeedByNew(Long currentUserId, FeedCursor cursor, int size) {
+        return query(FEED_BY_NEW_AFTER, currentUserId, cursor, size);
+    }
+
+    public List<Image> getFeedByPopular(Long currentUserId, FeedCursor cursor, int size) {
+        return query(FEED_BY_POPULAR_AFTER, currentUserId, cursor, size);
+    }
+
+    public List<Image> getFeedByFollow(long userId, FeedCursor cursor, int size) {
+        return query(FEED_BY_FOLLOW_AFTER, userId, cursor, size);
+    }
+
+    public List<Image> getFeedByTimeline(long userId, FeedCursor cursor, int size) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("currentUser", userId)
+                .addValue("createdAt", cursor.createdAt())
+                .addValue("id", cursor.id())
+                .addValue("size", size);
+
+        try (Stream<Image> stream = jdbcTemplate.queryForStream(FEED_BY_TIMELINE, params, imageRowMapper)) {
+            return stream.toList();
+        }
+    }
+
+    public List<Image> getFeedByIds(Long currentUserId, List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("currentUser", currentUserId)
+                .addValue("ids", ids);
+
+        try (Stream<Image> stream = jdbcTemplate.queryForStream(FEED_BY_IDS, params, imageRowMapper)) {
+            return stream.toList();
+        }
+    }
+
+    private List<Image> query(String sql, Long currentUserId, FeedCursor cursor, int size) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("currentUser", currentUserId)
+                .addValue("likes", cursor.likes())
+                .addValue("createdAt", cursor.createdAt())
+                .addValue("id", cursor.id())
+                .addValue("size", size);
+
+        try (Stream<Image> stream = jdbcTemplate.queryForStream(sql, params, imageRowMapper)) {
+            return stream.toList();
+        }
+    }
+
     public List<Image> getFeedByNew(Long currentUserId, int size, int page) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("currentUser", currentUserId)
@@ -0,0 +1,85 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.repository.mapper.ImageContentRowMapper;
+import ru.visionary.mixing.mind_broker.utils.SqlArrayUtils;
+
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ImageContentRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ImageContentRowMapper rowMapper;
+
+    private static final String ACQUIRE_BY_HASH = """
+            UPDATE image_content
+            SET ref_count = ref_count + 1
+            WHERE hash = :hash
+            RETURNING *
+            """;
+
+    private static final String INSERT_OR_ACQUIRE = """
+            INSERT INTO image_content (id, hash, ref_count, renditions)
+            VALUES (:id, :hash, 1, COALESCE(:renditions::integer[], '{}'))
+            ON CONFLICT (hash) DO UPDATE
+            SET ref_count = image_content.ref_count + 1
+            RETURNING *
+            """;
+
+    private static final String RELEASE = """
+            UPDATE image_content
+            SET ref_count = ref_count - 1
+            WHERE id = :id
+            RETURNING *
+            """;
+
+    private static final String DELETE_UNREFERENCED = """
+            DELETE FROM image_content
+            WHERE id = :id
+                AND ref_count <= 0
+            """;
+
+    public ImageContent acquireByHash(String hash) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("hash", hash);
+
+        try {
+            return jdbcTemplate.queryForObject(ACQUIRE_BY_HASH, params, rowMapper);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public ImageContent insertOrAcquire(ImageContent content) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", content.id())
+                .addValue("hash", content.hash())
+                .addValue("renditions", SqlArrayUtils.integerArray(content.renditions()));
+
+        return jdbcTemplate.queryForObject(INSERT_OR_ACQUIRE, params, rowMapper);
+    }
+
+    public ImageContent release(UUID id) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id);
+
+        try {
+            return jdbcTemplate.queryForObject(RELEASE, params, rowMapper);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public int deleteUnreferenced(UUID id) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id);
+
+        return jdbcTemplate.update(DELETE_UNREFERENCED, params);
+    }
+}
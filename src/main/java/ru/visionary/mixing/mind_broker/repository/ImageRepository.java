@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 import ru.visionary.mixing.mind_broker.entity.Image;
 import ru.visionary.mixing.mind_broker.entity.Protection;
 import ru.visionary.mixing.mind_broker.repository.mapper.ImageRowMapper;
+import ru.visionary.mixing.mind_broker.utils.SqlArrayUtils;
 
 import java.util.List;
 import java.util.UUID;
@@ -20,19 +21,19 @@ public class ImageRepository {
     private final ImageRowMapper rowMapper;
 
     private static final String INSERT_IMAGE = """
-            INSERT INTO image (id, owner, protection, created_at)
-            VALUES (:id, :owner, :protection::protection, current_timestamp)
+            INSERT INTO image (id, owner, protection, renditions, content, created_at)
+            VALUES (:id, :owner, :protection::protection, COALESCE(:renditions::integer[], '{}'), :content, current_timestamp)
             """;
 
     private static final String FIND_BY_ID = """
-            SELECT i.*, u.nickname, u.avatar, u.active
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
             FROM image i
             JOIN users u ON i.owner = u.id
             WHERE i.id = :id
             """;
 
     private static final String FIND_BY_OWNER_AND_PROTECTION = """
-            SELECT i.*, u.nickname, u.avatar, u.active
+            SELECT i.*, u.nickname, u.avatar, u.avatar_renditions, u.active
             FROM image i
             JOIN users u ON i.owner = u.id
             WHERE i.owner = :ownerId
@@ -54,11 +55,13 @@ public class ImageRepository {
             """;
 
     public UUID save(Image image) {
-        UUID uuid = UUID.randomUUID();
+        UUID uuid = image.id() != null ? image.id() : UUID.randomUUID();
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("id", uuid)
                 .addValue("owner", image.owner().id())
-                .addValue("protection", image.protection().toString().toLowerCase());
+                .addValue("protection", image.protection().toString().toLowerCase())
+                .addValue("renditions", SqlArrayUtils.integerArray(image.renditions()))
+                .addValue("content", image.content());
 
         jdbcTemplate.update(INSERT_IMAGE, params);
         return uuid;
@@ -0,0 +1,77 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LikeCounter {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<UUID, Long> pending = new ConcurrentHashMap<>();
+
+    private static final String ADD_LIKE_COUNT = """
+            UPDATE image
+            SET like_count = GREATEST(like_count + :delta, 0)
+            WHERE id = :id
+            """;
+
+    public void add(UUID imageUuid, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.merge(imageUuid, delta, Long::sum);
+                }
+            });
+        } else {
+            pending.merge(imageUuid, delta, Long::sum);
+        }
+    }
+
+    public int flush() {
+        List<MapSqlParameterSource> params = new ArrayList<>();
+        for (UUID imageUuid : pending.keySet()) {
+            Long delta = pending.remove(imageUuid);
+            if (delta != null && delta != 0) {
+                params.add(new MapSqlParameterSource()
+                        .addValue("id", imageUuid)
+                        .addValue("delta", delta));
+            }
+        }
+        if (params.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(ADD_LIKE_COUNT, params.toArray(MapSqlParameterSource[]::new));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush like counts of {} images, retrying later: {}", params.size(), e.getMessage());
+            params.forEach(param -> pending.merge(
+                    (UUID) param.getValue("id"), (Long) param.getValue("delta"), Long::sum));
+            throw e;
+        }
+        return params.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Like counts of {} images were lost on shutdown", pending.size());
+        }
+    }
+}
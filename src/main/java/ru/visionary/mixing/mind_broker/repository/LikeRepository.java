@@ -9,6 +9,9 @@ import org.springframework.stereotype.Repository;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -16,6 +19,7 @@ import java.util.UUID;
 @Slf4j
 public class LikeRepository {
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final LikeCounter likeCounter;
 
     private static final String INSERT_LIKE = """
             INSERT INTO likes (user_id, image, like_at)
@@ -30,15 +34,11 @@ public class LikeRepository {
             WHERE u.id = :userId
             """;
 
-    private static final String IS_IMAGE_LIKED = """
-            SELECT exists (
-                SELECT 1
-                FROM likes l
-                    JOIN users u ON l.user_id = u.id
-                    JOIN image i ON l.image = i.id
-                WHERE u.id = :userId
-                    AND i.id = :imageUuid
-            )
+    private static final String FIND_LIKED_IMAGES = """
+            SELECT image
+            FROM likes
+            WHERE user_id = :userId
+                AND image IN (:images)
             """;
 
     private static final String DELETE_LIKE = """
@@ -57,6 +57,7 @@ public class LikeRepository {
             log.warn("Duplicate like attempt - user {} already liked image {}", userId, imageUuid);
             throw new ServiceException(ErrorCode.ALREADY_LIKED);
         }
+        likeCounter.add(imageUuid, 1);
     }
 
     public long getUserLikesCount(long userId) {
@@ -66,12 +67,12 @@ public class LikeRepository {
         return jdbcTemplate.queryForObject(GET_USER_LIKES_COUNT, params, Long.class);
     }
 
-    public boolean isImageLiked(long userId, UUID imageUuid) {
+    public Set<UUID> findLikedImages(long userId, List<UUID> imageUuids) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("userId", userId)
-                .addValue("imageUuid", imageUuid);
+                .addValue("images", imageUuids);
 
-        return jdbcTemplate.queryForObject(IS_IMAGE_LIKED, params, Boolean.class);
+        return new HashSet<>(jdbcTemplate.queryForList(FIND_LIKED_IMAGES, params, UUID.class));
     }
 
     public int deleteByUserAndImage(Long userId, UUID imageUuid) {
@@ -79,6 +80,10 @@ public class LikeRepository {
                 .addValue("userId", userId)
                 .addValue("image", imageUuid);
 
-        return jdbcTemplate.update(DELETE_LIKE, params);
+        int deleted = jdbcTemplate.update(DELETE_LIKE, params);
+        if (deleted > 0) {
+            likeCounter.add(imageUuid, -deleted);
+        }
+        return deleted;
     }
 }
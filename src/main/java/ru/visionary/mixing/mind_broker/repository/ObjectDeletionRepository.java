@@ -0,0 +1,86 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.visionary.mixing.mind_broker.entity.ObjectDeletion;
+import ru.visionary.mixing.mind_broker.repository.mapper.ObjectDeletionRowMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ObjectDeletionRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectDeletionRowMapper rowMapper;
+
+    private static final String INSERT_DELETION = """
+            INSERT INTO object_deletion (bucket, key)
+            VALUES (:bucket, :key)
+            """;
+
+    private static final String LOCK_DUE = """
+            SELECT *
+            FROM object_deletion
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_BY_IDS = """
+            DELETE FROM object_deletion
+            WHERE id IN (:ids)
+            """;
+
+    private static final String RESCHEDULE = """
+            UPDATE object_deletion
+            SET attempts = attempts + 1,
+                next_attempt_at = :now + LEAST(:maxBackoff, :initialBackoff * power(2, LEAST(attempts, 30))) * interval '1 second'
+            WHERE id IN (:ids)
+            """;
+
+    public void saveAll(String bucket, List<String> keys) {
+        MapSqlParameterSource[] params = keys.stream()
+                .map(key -> new MapSqlParameterSource()
+                        .addValue("bucket", bucket)
+                        .addValue("key", key))
+                .toArray(MapSqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(INSERT_DELETION, params);
+    }
+
+    public List<ObjectDeletion> lockDue(LocalDateTime now, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(LOCK_DUE, params, rowMapper);
+    }
+
+    public void deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids);
+
+        jdbcTemplate.update(DELETE_BY_IDS, params);
+    }
+
+    public void reschedule(List<Long> ids, LocalDateTime now, Duration initialBackoff, Duration maxBackoff) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", now)
+                .addValue("initialBackoff", initialBackoff.toSeconds())
+                .addValue("maxBackoff", maxBackoff.toSeconds());
+
+        jdbcTemplate.update(RESCHEDULE, params);
+    }
+}
@@ -22,8 +22,8 @@ public class ProcessingRepository {
     private final ProcessingRowMapper rowMapper;
 
     private static final String INSERT_PROCESSING = """
-            INSERT INTO processing (id, user_id, style, start_time, status, status_at)
-            VALUES (:id, :userId, :style, current_timestamp, 'PENDING'::processing_status, current_timestamp)
+            INSERT INTO processing (id, user_id, style, start_time, status, status_at, staged_image)
+            VALUES (:id, :userId, :style, current_timestamp, 'PENDING'::processing_status, current_timestamp, :stagedImage)
             """;
 
     private static final String FIND_BY_ID = """
@@ -39,6 +39,20 @@ public class ProcessingRepository {
             WHERE id = :id
             """;
 
+    private static final String LOCK_USER = """
+            SELECT id
+            FROM users
+            WHERE id = :userId
+            FOR UPDATE
+            """;
+
+    private static final String COUNT_ACTIVE_BY_USER = """
+            SELECT count(*)
+            FROM processing
+            WHERE user_id = :userId
+                AND status IN ('PENDING'::processing_status, 'PROCESSING'::processing_status)
+            """;
+
     private static final String UPDATE_STATUS = """
             UPDATE processing
             SET status = :status::processing_status, status_at = current_timestamp
@@ -52,12 +66,39 @@ public class ProcessingRepository {
                 AND status = 'PENDING'::processing_status
             """;
 
-    private static final String CLEAR_RESULT_WHERE_LOADED_BEFORE = """
+    private static final String COMPLETE_WITH_RESULT = """
             UPDATE processing
+            SET status = 'COMPLETED'::processing_status, status_at = current_timestamp, result = :result
+            WHERE id = :id
+            """;
+
+    private static final String CLEAR_RESULT_WHERE_LOADED_BEFORE = """
+            UPDATE processing p
             SET result = null
-            WHERE status = 'COMPLETED'::processing_status
-                AND result IS NOT NULL
-                AND status_at < :time
+            FROM (
+                SELECT id, result
+                FROM processing
+                WHERE status = 'COMPLETED'::processing_status
+                    AND result IS NOT NULL
+                    AND status_at < :time
+                FOR UPDATE
+            ) expired
+            WHERE p.id = expired.id
+            RETURNING expired.result
+            """;
+
+    private static final String FIND_FINISHED_STAGED_IMAGES = """
+            SELECT staged_image
+            FROM processing
+            WHERE staged_image IS NOT NULL
+                AND status IN ('COMPLETED'::processing_status, 'CANCELED'::processing_status, 'FAILED'::processing_status)
+            LIMIT :limit
+            """;
+
+    private static final String CLEAR_STAGED_IMAGES = """
+            UPDATE processing
+            SET staged_image = null
+            WHERE staged_image IN (:stagedImages)
             """;
 
     private static final String CANCEL_LONG_PROCESSING = """
@@ -77,7 +118,8 @@ public class ProcessingRepository {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("id", processing.id())
                 .addValue("userId", processing.user().id())
-                .addValue("style", processing.style().id());
+                .addValue("style", processing.style().id())
+                .addValue("stagedImage", processing.stagedImage());
 
         jdbcTemplate.update(INSERT_PROCESSING, params);
     }
@@ -100,6 +142,20 @@ public class ProcessingRepository {
         return jdbcTemplate.queryForObject(GET_START_TIME_BY_ID, params, Timestamp.class).toLocalDateTime();
     }
 
+    public void lockUser(Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId);
+
+        jdbcTemplate.queryForList(LOCK_USER, params, Long.class);
+    }
+
+    public int countActiveByUser(Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId);
+
+        return jdbcTemplate.queryForObject(COUNT_ACTIVE_BY_USER, params, Integer.class);
+    }
+
     public void updateStatus(UUID id, ProcessingStatus status) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("id", id)
@@ -114,11 +170,33 @@ public class ProcessingRepository {
         return jdbcTemplate.update(CANCEL_PENDING_BY_ID, params);
     }
 
-    public void clearResultWhereLoadedBefore(LocalDateTime time) {
+    public void completeWithResult(UUID id, String result) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("result", result);
+
+        jdbcTemplate.update(COMPLETE_WITH_RESULT, params);
+    }
+
+    public List<String> clearResultWhereLoadedBefore(LocalDateTime time) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("time", time);
 
-        jdbcTemplate.update(CLEAR_RESULT_WHERE_LOADED_BEFORE, params);
+        return jdbcTemplate.queryForList(CLEAR_RESULT_WHERE_LOADED_BEFORE, params, String.class);
+    }
+
+    public List<String> findFinishedStagedImages(int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", limit);
+
+        return jdbcTemplate.queryForList(FIND_FINISHED_STAGED_IMAGES, params, String.class);
+    }
+
+    public void clearStagedImages(List<String> stagedImages) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("stagedImages", stagedImages);
+
+        jdbcTemplate.update(CLEAR_STAGED_IMAGES, params);
     }
 
     public List<Processing> cancelLongProcessing(LocalDateTime time) {
@@ -0,0 +1,157 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class TimelineRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final String COUNT_FOLLOWERS = """
+            SELECT count(*)
+            FROM follow
+            WHERE follow = :author
+            """;
+
+    private static final String FAN_OUT = """
+            INSERT INTO timeline (user_id, image, created_at)
+            SELECT f.follower, i.id, i.created_at
+            FROM image i
+                JOIN follow f ON f.follow = i.owner
+            WHERE i.id = :image
+                AND i.protection = 'public'::protection
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String ADD_AUTHOR = """
+            INSERT INTO timeline (user_id, image, created_at)
+            SELECT :follower, i.id, i.created_at
+            FROM image i
+            WHERE i.owner = :author
+                AND i.protection = 'public'::protection
+                AND i.fanned_out
+            ORDER BY i.created_at DESC, i.id DESC
+            LIMIT :limit
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String REMOVE_AUTHOR = """
+            DELETE FROM timeline t
+            USING image i
+            WHERE t.image = i.id
+                AND t.user_id = :follower
+                AND i.owner = :author
+            """;
+
+    private static final String REMOVE_IMAGE = """
+            DELETE FROM timeline
+            WHERE image = :image
+            """;
+
+    private static final String TRIM = """
+            DELETE FROM timeline t
+            USING (
+                SELECT created_at, image
+                FROM timeline
+                WHERE user_id = :user
+                ORDER BY created_at DESC, image DESC
+                OFFSET :capacity
+                LIMIT 1
+            ) b
+            WHERE t.user_id = :user
+                AND (t.created_at, t.image) <= (b.created_at, b.image)
+            """;
+
+    private static final String TRIM_FOLLOWERS = """
+            DELETE FROM timeline t
+            USING (
+                SELECT f.follower, b.created_at, b.image
+                FROM follow f
+                    CROSS JOIN LATERAL (
+                        SELECT created_at, image
+                        FROM timeline
+                        WHERE user_id = f.follower
+                        ORDER BY created_at DESC, image DESC
+                        OFFSET :capacity
+                        LIMIT 1
+                    ) b
+                WHERE f.follow = :author
+            ) b
+            WHERE t.user_id = b.follower
+                AND (t.created_at, t.image) <= (b.created_at, b.image)
+            """;
+
+    private static final String MARK_FANNED_OUT = """
+            UPDATE image
+            SET fanned_out = :fannedOut
+            WHERE id = :image
+                AND fanned_out != :fannedOut
+            """;
+
+    public long countFollowers(long authorId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("author", authorId);
+
+        return jdbcTemplate.queryForObject(COUNT_FOLLOWERS, params, Long.class);
+    }
+
+    public int fanOut(UUID imageId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("image", imageId);
+
+        return jdbcTemplate.update(FAN_OUT, params);
+    }
+
+    public int addAuthor(long followerId, long authorId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("follower", followerId)
+                .addValue("author", authorId)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.update(ADD_AUTHOR, params);
+    }
+
+    public int removeAuthor(long followerId, long authorId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("follower", followerId)
+                .addValue("author", authorId);
+
+        return jdbcTemplate.update(REMOVE_AUTHOR, params);
+    }
+
+    public int removeImage(UUID imageId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("image", imageId);
+
+        return jdbcTemplate.update(REMOVE_IMAGE, params);
+    }
+
+    public int markFannedOut(UUID imageId, boolean fannedOut) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("image", imageId)
+                .addValue("fannedOut", fannedOut);
+
+        return jdbcTemplate.update(MARK_FANNED_OUT, params);
+    }
+
+    public int trim(long userId, int capacity) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("user", userId)
+                .addValue("capacity", capacity);
+
+        return jdbcTemplate.update(TRIM, params);
+    }
+
+    public int trimFollowers(long authorId, int capacity) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("author", authorId)
+                .addValue("capacity", capacity);
+
+        return jdbcTemplate.update(TRIM_FOLLOWERS, params);
+    }
+}
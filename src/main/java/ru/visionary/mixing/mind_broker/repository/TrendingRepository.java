@@ -0,0 +1,120 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class TrendingRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final String LOCK_WATERMARK = """
+            SELECT watermark
+            FROM trending_state
+            WHERE id = 1
+            FOR UPDATE
+            """;
+
+    private static final String CURRENT_TIMESTAMP = """
+            SELECT localtimestamp
+            """;
+
+    private static final String UPDATE_WATERMARK = """
+            UPDATE trending_state
+            SET watermark = :watermark
+            WHERE id = 1
+            """;
+
+    private static final String DECAY_SCORES = """
+            UPDATE image_trend
+            SET score = score * exp(:decayRate * extract(epoch FROM scored_at - :now)),
+                scored_at = :now
+            """;
+
+    private static final String ADD_EVENTS = """
+            INSERT INTO image_trend (image, score, scored_at)
+            SELECT e.image, sum(e.weight * exp(:decayRate * extract(epoch FROM e.at - :now))), :now
+            FROM (
+                SELECT image, like_at AS at, :likeWeight AS weight
+                FROM likes
+                WHERE like_at > :from AND like_at <= :now
+                UNION ALL
+                SELECT image, created_at AS at, :commentWeight AS weight
+                FROM comment
+                WHERE created_at > :from AND created_at <= :now
+            ) e
+                JOIN image i ON e.image = i.id
+            WHERE i.protection = 'public'::protection
+            GROUP BY e.image
+            ON CONFLICT (image) DO UPDATE
+            SET score = image_trend.score + excluded.score
+            """;
+
+    private static final String DELETE_BELOW = """
+            DELETE FROM image_trend
+            WHERE score < :minScore
+            """;
+
+    private static final String FIND_TOP = """
+            SELECT t.image
+            FROM image_trend t
+                JOIN image i ON t.image = i.id
+            WHERE i.protection = 'public'::protection
+            ORDER BY t.score DESC, t.image
+            LIMIT :limit
+            """;
+
+    public LocalDateTime lockWatermark() {
+        return jdbcTemplate.queryForObject(LOCK_WATERMARK, new MapSqlParameterSource(), LocalDateTime.class);
+    }
+
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject(CURRENT_TIMESTAMP, new MapSqlParameterSource(), LocalDateTime.class);
+    }
+
+    public void updateWatermark(LocalDateTime watermark) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("watermark", watermark);
+
+        jdbcTemplate.update(UPDATE_WATERMARK, params);
+    }
+
+    public void decayScores(LocalDateTime now, double decayRate) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("decayRate", decayRate);
+
+        jdbcTemplate.update(DECAY_SCORES, params);
+    }
+
+    public int addEvents(LocalDateTime from, LocalDateTime now, double decayRate, double likeWeight, double commentWeight) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("now", now)
+                .addValue("decayRate", decayRate)
+                .addValue("likeWeight", likeWeight)
+                .addValue("commentWeight", commentWeight);
+
+        return jdbcTemplate.update(ADD_EVENTS, params);
+    }
+
+    public int deleteBelow(double minScore) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("minScore", minScore);
+
+        return jdbcTemplate.update(DELETE_BELOW, params);
+    }
+
+    public List<UUID> findTop(int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", limit);
+
+        return jdbcTemplate.queryForList(FIND_TOP, params, UUID.class);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.visionary.mixing.mind_broker.entity.Upload;
+import ru.visionary.mixing.mind_broker.repository.mapper.UploadRowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class UploadRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UploadRowMapper rowMapper;
+
+    private static final String INSERT_UPLOAD = """
+            INSERT INTO upload (id, owner, target, protection, created_at, expires_at)
+            VALUES (:id, :owner, :target::upload_target, :protection::protection, current_timestamp, :expiresAt)
+            """;
+
+    private static final String FIND_BY_ID = """
+            SELECT *
+            FROM upload
+            WHERE id = :id
+            """;
+
+    private static final String DELETE_BY_ID = """
+            DELETE FROM upload
+            WHERE id = :id
+            """;
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM upload
+            WHERE id IN (
+                SELECT id
+                FROM upload
+                WHERE expires_at < :now
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id
+            """;
+
+    public void save(Upload upload) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", upload.id())
+                .addValue("owner", upload.owner().id())
+                .addValue("target", upload.target().toString().toLowerCase())
+                .addValue("protection", upload.protection() != null ? upload.protection().toString().toLowerCase() : null)
+                .addValue("expiresAt", upload.expiresAt());
+
+        jdbcTemplate.update(INSERT_UPLOAD, params);
+    }
+
+    public Upload findById(UUID id) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id);
+
+        try {
+            return jdbcTemplate.queryForObject(FIND_BY_ID, params, rowMapper);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public int deleteById(UUID id) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id);
+
+        return jdbcTemplate.update(DELETE_BY_ID, params);
+    }
+
+    public List<UUID> deleteExpired(LocalDateTime now, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.queryForList(DELETE_EXPIRED, params, UUID.class);
+    }
+}
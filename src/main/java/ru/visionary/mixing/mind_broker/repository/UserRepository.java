@@ -7,7 +7,9 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.repository.mapper.UserRowMapper;
+import ru.visionary.mixing.mind_broker.utils.SqlArrayUtils;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -48,7 +50,8 @@ public class UserRepository {
             SET nickname = COALESCE(:nickname, nickname),
                 description = COALESCE(:description, description),
                 password = COALESCE(:password, password),
-                avatar = COALESCE(:avatar, avatar)
+                avatar = COALESCE(:avatar, avatar),
+                avatar_renditions = COALESCE(:avatarRenditions::integer[], avatar_renditions)
             WHERE id = :id
             """;
 
@@ -60,7 +63,8 @@ public class UserRepository {
 
     private static final String DELETE_AVATAR = """
             UPDATE users
-            SET avatar = null
+            SET avatar = null,
+                avatar_renditions = '{}'
             WHERE id = :id
             """;
 
@@ -107,13 +111,15 @@ public class UserRepository {
         }
     }
 
-    public void updateUser(long userId, String nickname, String description, String password, UUID avatar) {
+    public void updateUser(long userId, String nickname, String description, String password, UUID avatar,
+                           List<Integer> avatarRenditions) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("id", userId)
                 .addValue("nickname", nickname)
                 .addValue("description", description)
                 .addValue("password", password)
-                .addValue("avatar", avatar);
+                .addValue("avatar", avatar)
+                .addValue("avatarRenditions", SqlArrayUtils.integerArray(avatarRenditions));
 
         jdbcTemplate.update(UPDATE_USER, params);
     }
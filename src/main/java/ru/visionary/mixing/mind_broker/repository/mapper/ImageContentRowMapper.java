@@ -0,0 +1,23 @@
+package ru.visionary.mixing.mind_broker.repository.mapper;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.utils.SqlArrayUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@Component
+public class ImageContentRowMapper implements RowMapper<ImageContent> {
+    @Override
+    public ImageContent mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return ImageContent.builder()
+                .id(rs.getObject("id", UUID.class))
+                .hash(rs.getString("hash"))
+                .refCount(rs.getInt("ref_count"))
+                .renditions(SqlArrayUtils.getIntegerList(rs, "renditions"))
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 import ru.visionary.mixing.mind_broker.entity.Image;
 import ru.visionary.mixing.mind_broker.entity.Protection;
 import ru.visionary.mixing.mind_broker.entity.User;
+import ru.visionary.mixing.mind_broker.utils.SqlArrayUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -18,10 +19,14 @@ public class ImageRowMapper implements RowMapper<Image> {
                 .id(rs.getObject("id", UUID.class))
                 .protection(Protection.valueOf(rs.getString("protection").toUpperCase()))
                 .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .renditions(SqlArrayUtils.getIntegerList(rs, "renditions"))
+                .content(rs.getObject("content", UUID.class))
+                .likeCount(rs.getLong("like_count"))
                 .owner(User.builder()
                         .id(rs.getLong("owner"))
                         .nickname(rs.getString("nickname"))
                         .avatar(rs.getObject("avatar", UUID.class))
+                        .avatarRenditions(SqlArrayUtils.getIntegerList(rs, "avatar_renditions"))
                         .active(rs.getBoolean("active"))
                         .build()
                 )
@@ -0,0 +1,21 @@
+package ru.visionary.mixing.mind_broker.repository.mapper;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import ru.visionary.mixing.mind_broker.entity.ObjectDeletion;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class ObjectDeletionRowMapper implements RowMapper<ObjectDeletion> {
+    @Override
+    public ObjectDeletion mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return ObjectDeletion.builder()
+                .id(rs.getLong("id"))
+                .bucket(rs.getString("bucket"))
+                .key(rs.getString("key"))
+                .attempts(rs.getInt("attempts"))
+                .build();
+    }
+}
@@ -26,6 +26,7 @@ public class ProcessingRowMapper implements RowMapper<Processing> {
                 .status(ProcessingStatus.valueOf(rs.getString("status")))
                 .statusAt(rs.getTimestamp("status_at").toLocalDateTime())
                 .result(rs.getString("result"))
+                .stagedImage(rs.getString("staged_image"))
                 .build();
     }
 }
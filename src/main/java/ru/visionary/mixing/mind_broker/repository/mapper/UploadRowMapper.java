@@ -0,0 +1,28 @@
+package ru.visionary.mixing.mind_broker.repository.mapper;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.Upload;
+import ru.visionary.mixing.mind_broker.entity.UploadTarget;
+import ru.visionary.mixing.mind_broker.entity.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@Component
+public class UploadRowMapper implements RowMapper<Upload> {
+    @Override
+    public Upload mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String protection = rs.getString("protection");
+        return Upload.builder()
+                .id(rs.getObject("id", UUID.class))
+                .owner(User.builder().id(rs.getLong("owner")).build())
+                .target(UploadTarget.valueOf(rs.getString("target").toUpperCase()))
+                .protection(protection != null ? Protection.valueOf(protection.toUpperCase()) : null)
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .expiresAt(rs.getTimestamp("expires_at").toLocalDateTime())
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package ru.visionary.mixing.mind_broker.repository.mapper;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import ru.visionary.mixing.mind_broker.entity.User;
+import ru.visionary.mixing.mind_broker.utils.SqlArrayUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -18,6 +19,7 @@ public class UserRowMapper implements RowMapper<User> {
                 .email(rs.getString("email"))
                 .password(rs.getString("password"))
                 .avatar(rs.getObject("avatar", UUID.class))
+                .avatarRenditions(SqlArrayUtils.getIntegerList(rs, "avatar_renditions"))
                 .description(rs.getString("description"))
                 .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
                 .admin(rs.getBoolean("admin"))
@@ -0,0 +1,121 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.config.properties.CompressionPoolProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.entity.ImageHeader;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class CompressionExecutor {
+    private static final int KILOBYTE = 1024;
+    private static final int MIN_BYTES_PER_PIXEL = 4;
+
+    private final CompressionPoolProperties properties;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Semaphore memoryBudget;
+    private final int memoryBudgetKb;
+    private final Timer compressionTimer;
+    private final DistributionSummary compressionRatio;
+    private final Counter rejectedCounter;
+
+    public CompressionExecutor(ImageProperties imageProperties, MeterRegistry meterRegistry) {
+        this.properties = imageProperties.compressionPool();
+        this.pool = new ThreadPoolExecutor(
+                properties.threads(),
+                properties.threads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "image.compression");
+        this.memoryBudgetKb = (int) Math.min(Integer.MAX_VALUE, properties.memoryBudget() / KILOBYTE);
+        this.memoryBudget = new Semaphore(memoryBudgetKb);
+
+        Gauge.builder("image.compression.memory.used", () -> (long) (memoryBudgetKb - memoryBudget.availablePermits()) * KILOBYTE)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.compressionTimer = Timer.builder("image.compression.duration")
+                .register(meterRegistry);
+        this.compressionRatio = DistributionSummary.builder("image.compression.ratio")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("image.compression.rejected")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(ImageHeader header, Callable<T> task) throws Exception {
+        int permits = estimateKb(header);
+        if (!acquire(permits)) {
+            log.warn("Compression rejected: memory budget exhausted - Required: {} KB, Available: {} KB", permits, memoryBudget.availablePermits());
+            rejectedCounter.increment();
+            throw new ServiceException(ErrorCode.IMAGE_PROCESSING_OVERLOADED);
+        }
+
+        try {
+            Future<T> future = executor.submit(() -> compressionTimer.recordCallable(task));
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new ServiceException(ErrorCode.IMAGE_PROCESSING_OVERLOADED);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Compression rejected: queue is full - Queue size: {}", pool.getQueue().size());
+            rejectedCounter.increment();
+            throw new ServiceException(ErrorCode.IMAGE_PROCESSING_OVERLOADED);
+        } finally {
+            memoryBudget.release(permits);
+        }
+    }
+
+    public void recordRatio(long originalSize, long compressedSize) {
+        if (originalSize > 0) {
+            compressionRatio.record((double) compressedSize / originalSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private boolean acquire(int permits) {
+        try {
+            return memoryBudget.tryAcquire(permits, properties.admissionTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private int estimateKb(ImageHeader header) {
+        int bytesPerPixel = Math.max(MIN_BYTES_PER_PIXEL, (header.bitsPerPixel() + 7) / 8);
+        long estimate = header.pixels() * bytesPerPixel / KILOBYTE + 1;
+        return (int) Math.min(estimate, memoryBudgetKb);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.entity.Download;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DownloadService {
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+    private final MinioService minioService;
+    private final ImageProperties imageProperties;
+
+    public CacheControl cacheControl(Protection protection) {
+        CacheControl cacheControl = CacheControl.maxAge(imageProperties.download().maxAge());
+        return Protection.PUBLIC.equals(protection) ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+
+    public Download download(StoredObjectInfo object, CacheControl cacheControl, String range, String ifNoneMatch) {
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, object.etag())) {
+            log.debug("File {} not modified", object.key());
+            return Download.notModified(object, cacheControl);
+        }
+
+        HttpRange httpRange = parseRange(range);
+        if (httpRange == null) {
+            log.debug("Streaming file {} ({} bytes)", object.key(), object.size());
+            return Download.full(object, cacheControl, minioService.openObject(object, 0, null));
+        }
+
+        long start = httpRange.getRangeStart(object.size());
+        long end = httpRange.getRangeEnd(object.size());
+        if (start >= object.size() || start > end) {
+            log.debug("Range {} not satisfiable for file {} ({} bytes)", range, object.key(), object.size());
+            return Download.rangeNotSatisfiable(object);
+        }
+
+        long length = end - start + 1;
+        log.debug("Streaming bytes {}-{} of file {}", start, end, object.key());
+        return Download.partial(object, cacheControl, start, length, minioService.openObject(object, start, length));
+    }
+
+    static HttpRange parseRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (ANY_ETAG.equals(candidate)) {
+                return true;
+            }
+            if (candidate.startsWith(WEAK_ETAG_PREFIX)) {
+                candidate = candidate.substring(WEAK_ETAG_PREFIX.length());
+            }
+            if (candidate.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
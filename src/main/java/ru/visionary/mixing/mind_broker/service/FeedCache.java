@@ -0,0 +1,156 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.visionary.mixing.mind_broker.config.properties.FeedCacheProperties;
+import ru.visionary.mixing.mind_broker.entity.FeedChangedEvent;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.FeedSortType;
+import ru.visionary.mixing.mind_broker.entity.Image;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class FeedCache {
+    private static final Set<FeedSortType> CACHED_SORTS = EnumSet.of(FeedSortType.NEW, FeedSortType.POPULAR);
+
+    private final FeedCacheProperties properties;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, Integer> depths = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    public FeedCache(FeedCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        Gauge.builder("feed.cache.size", entries, Map::size)
+                .register(meterRegistry);
+        this.hits = Counter.builder("feed.cache.gets")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("feed.cache.gets")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("feed.cache.evictions")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("feed.cache.evictions")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("feed.cache.evictions")
+                .tag("cause", "invalidated")
+                .register(meterRegistry);
+    }
+
+    public List<Image> get(FeedSortType sort, int size, int page, Supplier<List<Image>> loader) {
+        return get(new Key(sort, size, page, null), page, loader);
+    }
+
+    public List<Image> get(FeedSortType sort, int size, FeedCursor cursor, Supplier<List<Image>> loader) {
+        Key key = new Key(sort, size, null, cursor);
+        Integer depth = cursor.isFirst() ? Integer.valueOf(0) : depths.get(key);
+        return get(key, depth == null ? properties.pages() : depth, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFeedChanged(FeedChangedEvent event) {
+        invalidate(event.sorts());
+    }
+
+    public void invalidate(Set<FeedSortType> sorts) {
+        depths.keySet().removeIf(key -> sorts.contains(key.sort()));
+        for (Key key : entries.keySet()) {
+            if (sorts.contains(key.sort()) && entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+        log.debug("Feed cache invalidated - Sorts: {}", sorts);
+    }
+
+    private List<Image> get(Key key, int depth, Supplier<List<Image>> loader) {
+        if (!properties.enabled() || !CACHED_SORTS.contains(key.sort()) || depth >= properties.pages()) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - now <= 0) {
+            if (entries.remove(key, entry)) {
+                expiredEvictions.increment();
+            }
+            entry = null;
+        }
+
+        Entry created = new Entry(new CompletableFuture<>(), now + properties.ttl().toNanos());
+        if (entry == null) {
+            entry = entries.putIfAbsent(key, created);
+        }
+        if (entry != null) {
+            hits.increment();
+            return join(entry);
+        }
+
+        misses.increment();
+        evictIfFull();
+        try {
+            List<Image> images = loader.get();
+            created.images().complete(images);
+            registerNextPage(key, depth, images);
+            return images;
+        } catch (Throwable e) {
+            entries.remove(key, created);
+            created.images().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private List<Image> join(Entry entry) {
+        try {
+            return entry.images().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void registerNextPage(Key key, int depth, List<Image> images) {
+        if (key.cursor() == null || images.size() < key.size() || depth + 1 >= properties.pages()) {
+            return;
+        }
+        if (depths.size() >= properties.maxSize()) {
+            depths.clear();
+        }
+        depths.put(new Key(key.sort(), key.size(), null, FeedCursor.after(key.sort(), images.getLast())), depth + 1);
+    }
+
+    private void evictIfFull() {
+        while (entries.size() > properties.maxSize()) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                    .filter(eldest -> entries.remove(eldest.getKey(), eldest.getValue()))
+                    .ifPresent(eldest -> sizeEvictions.increment());
+        }
+    }
+
+    private record Key(FeedSortType sort, int size, Integer page, FeedCursor cursor) {}
+
+    private record Entry(CompletableFuture<List<Image>> images, long expiresAt) {}
+}
@@ -5,7 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.visionary.mixing.generated.model.GetImagesResponse;
 import ru.visionary.mixing.generated.model.ImageResponse;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
 import ru.visionary.mixing.mind_broker.entity.FeedSortType;
+import ru.visionary.mixing.mind_broker.entity.Image;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
@@ -13,17 +15,32 @@ import ru.visionary.mixing.mind_broker.repository.FeedRepository;
 import ru.visionary.mixing.mind_broker.service.mapper.ImageMapper;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FeedService {
+    private static final String CURSOR_DELIMITER = "|";
+
     private final FeedRepository feedRepository;
+    private final TrendingService trendingService;
+    private final TimelineService timelineService;
+    private final FeedCache feedCache;
     private final ImageMapper imageMapper;
+    private final ImageEnricher imageEnricher;
 
-    public GetImagesResponse getFeed(String sort, Integer size, Integer page) {
-        log.info("Processing feed request - Sort: {}, Size: {}, Page: {}", sort, size, page);
+    public GetImagesResponse getFeed(String sort, Integer size, Integer page, String cursor) {
+        log.info("Processing feed request - Sort: {}, Size: {}, Page: {}, Cursor: {}", sort, size, page, cursor);
 
         FeedSortType feedSortType;
         try {
@@ -33,18 +50,31 @@ public class FeedService {
             throw new ServiceException(ErrorCode.INVALID_REQUEST);
         }
 
+        FeedCursor feedCursor = null;
+        if (cursor != null) {
+            feedCursor = decodeCursor(cursor, feedSortType);
+        } else if (page == null) {
+            feedCursor = FeedCursor.first(feedSortType);
+        } else {
+            log.debug("Using deprecated offset pagination - Page: {}", page);
+        }
+
         switch (feedSortType) {
             case NEW -> {
                 log.debug("Processing NEW feed");
-                return getFeedByNew(size, page);
+                return getFeedByNew(size, page, feedCursor);
             }
             case POPULAR -> {
                 log.debug("Processing POPULAR feed");
-                return getFeedByPopular(size, page);
+                return getFeedByPopular(size, page, feedCursor);
             }
             case FOLLOW -> {
                 log.debug("Processing FOLLOW feed");
-                return getFeedByFollow(size, page);
+                return getFeedByFollow(size, page, feedCursor);
+            }
+            case TRENDING -> {
+                log.debug("Processing TRENDING feed");
+                return getFeedByTrending(size, page, feedCursor);
             }
             default -> {
                 log.error("Unhandled feed sort type: {}", feedSortType);
@@ -53,29 +83,35 @@ public class FeedService {
         }
     }
 
-    private GetImagesResponse getFeedByNew(Integer size, Integer page) {
+    private GetImagesResponse getFeedByNew(Integer size, Integer page, FeedCursor cursor) {
         log.debug("Fetching NEW feed - Size: {}, Page: {}", size, page);
 
         User user = SecurityContextUtils.getAuthenticatedUser();
+        Long userId = user == null ? null : user.id();
 
-        List<ImageResponse> images = imageMapper.toResponse(feedRepository.getFeedByNew(user == null ? null : user.id(), size, page));
+        List<Image> images = cursor != null
+                ? feedCache.get(FeedSortType.NEW, size, cursor, () -> feedRepository.getFeedByNew(null, cursor, size))
+                : feedCache.get(FeedSortType.NEW, size, page, () -> feedRepository.getFeedByNew(null, size, page));
         log.info("Fetched {} NEW images", images.size());
 
-        return new GetImagesResponse(images);
+        return toResponse(images, size, cursor, userId);
     }
 
-    private GetImagesResponse getFeedByPopular(Integer size, Integer page) {
+    private GetImagesResponse getFeedByPopular(Integer size, Integer page, FeedCursor cursor) {
         log.debug("Fetching POPULAR feed - Size: {}, Page: {}", size, page);
 
         User user = SecurityContextUtils.getAuthenticatedUser();
+        Long userId = user == null ? null : user.id();
 
-        List<ImageResponse> images = imageMapper.toResponse(feedRepository.getFeedByPopular(user == null ? null : user.id(), size, page));
+        List<Image> images = cursor != null
+                ? feedCache.get(FeedSortType.POPULAR, size, cursor, () -> feedRepository.getFeedByPopular(null, cursor, size))
+                : feedCache.get(FeedSortType.POPULAR, size, page, () -> feedRepository.getFeedByPopular(null, size, page));
         log.info("Fetched {} POPULAR images", images.size());
 
-        return new GetImagesResponse(images);
+        return toResponse(images, size, cursor, userId);
     }
 
-    private GetImagesResponse getFeedByFollow(Integer size, Integer page) {
+    private GetImagesResponse getFeedByFollow(Integer size, Integer page, FeedCursor cursor) {
         log.debug("Fetching FOLLOW feed - Size: {}, Page: {}", size, page);
 
         User user = SecurityContextUtils.getAuthenticatedUser();
@@ -90,9 +126,86 @@ public class FeedService {
 
         log.debug("Fetching FOLLOW feed for user {}", user.id());
 
-        List<ImageResponse> images = imageMapper.toResponse(feedRepository.getFeedByFollow(user.id(), size, page));
+        List<Image> images;
+        if (cursor == null) {
+            images = feedRepository.getFeedByFollow(user.id(), size, page);
+        } else if (timelineService.enabled()) {
+            images = timelineService.getTimeline(user.id(), cursor, size);
+        } else {
+            images = feedRepository.getFeedByFollow(user.id(), cursor, size);
+        }
         log.info("Fetched {} FOLLOW images for user {}", images.size(), user.id());
 
-        return new GetImagesResponse(images);
+        return toResponse(images, size, cursor, user.id());
+    }
+
+    private GetImagesResponse getFeedByTrending(Integer size, Integer page, FeedCursor cursor) {
+        log.debug("Fetching TRENDING feed - Size: {}, Page: {}", size, page);
+
+        User user = SecurityContextUtils.getAuthenticatedUser();
+        Long userId = user == null ? null : user.id();
+
+        int offset;
+        if (cursor == null) {
+            offset = size * page;
+        } else if (cursor.isFirst()) {
+            offset = 0;
+        } else {
+            offset = trendingService.offsetAfter(cursor.id());
+        }
+
+        List<UUID> ids = trendingService.page(offset, size);
+        Map<UUID, Image> found = feedRepository.getFeedByIds(userId, ids).stream()
+                .collect(Collectors.toMap(Image::id, Function.identity()));
+        List<Image> images = ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+        log.info("Fetched {} TRENDING images", images.size());
+
+        List<ImageResponse> responses = imageMapper.toResponse(images);
+        imageEnricher.enrich(responses, userId);
+
+        GetImagesResponse response = new GetImagesResponse(responses);
+        if (cursor != null && !ids.isEmpty() && trendingService.hasMore(offset + ids.size())) {
+            response.setNextCursor(encodeCursor(FeedCursor.at(FeedSortType.TRENDING, ids.getLast())));
+        }
+        return response;
+    }
+
+    private GetImagesResponse toResponse(List<Image> images, Integer size, FeedCursor cursor, Long currentUserId) {
+        List<Image> visible = currentUserId == null
+                ? images
+                : images.stream().filter(image -> !currentUserId.equals(image.owner().id())).toList();
+        List<ImageResponse> responses = imageMapper.toResponse(visible);
+        imageEnricher.enrich(responses, currentUserId);
+
+        GetImagesResponse response = new GetImagesResponse(responses);
+        if (cursor != null && !images.isEmpty() && images.size() == size) {
+            response.setNextCursor(encodeCursor(FeedCursor.after(cursor.sort(), images.getLast())));
+        }
+        return response;
+    }
+
+    static String encodeCursor(FeedCursor cursor) {
+        String value = String.join(CURSOR_DELIMITER,
+                cursor.sort().name(),
+                Long.toString(cursor.likes()),
+                cursor.createdAt().toString(),
+                cursor.id().toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static FeedCursor decodeCursor(String cursor, FeedSortType sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + CURSOR_DELIMITER);
+            if (parts.length == 4 && FeedSortType.valueOf(parts[0]) == sort) {
+                return new FeedCursor(sort, Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.warn("Invalid feed cursor: '{}' - {}", cursor, e.getMessage());
+        }
+        throw new ServiceException(ErrorCode.INVALID_REQUEST);
     }
 }
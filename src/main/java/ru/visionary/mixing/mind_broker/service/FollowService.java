@@ -3,6 +3,7 @@ package ru.visionary.mixing.mind_broker.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.visionary.mixing.generated.model.UsersResponse;
 import ru.visionary.mixing.mind_broker.entity.Follow;
 import ru.visionary.mixing.mind_broker.entity.User;
@@ -21,8 +22,10 @@ import java.util.List;
 public class FollowService {
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
+    private final TimelineService timelineService;
     private final UserMapper userMapper;
 
+    @Transactional
     public void follow(Long userId) {
         User currentUser = SecurityContextUtils.getAuthenticatedUser();
 
@@ -59,9 +62,11 @@ public class FollowService {
                 .build();
 
         followRepository.save(newFollow);
+        timelineService.follow(currentUser.id(), userId);
         log.info("Follow success - {} started following {}", currentUser.id(), userId);
     }
 
+    @Transactional
     public void unfollow(Long userId) {
         User currentUser = SecurityContextUtils.getAuthenticatedUser();
 
@@ -92,6 +97,8 @@ public class FollowService {
             throw new ServiceException(ErrorCode.NOT_FOLLOWING);
         }
 
+        timelineService.unfollow(currentUser.id(), userId);
+
         log.info("Unfollow success - {} stopped following {}", currentUser.id(), userId);
     }
 
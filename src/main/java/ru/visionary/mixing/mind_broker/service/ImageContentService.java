@@ -0,0 +1,50 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.repository.ImageContentRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageContentService {
+    private final ImageContentRepository imageContentRepository;
+    private final ObjectDeletionService objectDeletionService;
+
+    public ImageContent acquire(String hash) {
+        ImageContent content = imageContentRepository.acquireByHash(hash);
+        if (content != null) {
+            log.info("Reusing stored content {}, references: {}", content.id(), content.refCount());
+        }
+        return content;
+    }
+
+    public ImageContent register(UUID id, String hash, List<Integer> renditions) {
+        ImageContent content = imageContentRepository.insertOrAcquire(ImageContent.builder()
+                .id(id)
+                .hash(hash)
+                .renditions(renditions)
+                .build());
+        if (!content.id().equals(id)) {
+            log.info("Content {} was stored concurrently, reusing it", content.id());
+            objectDeletionService.deleteImage(id, renditions);
+        }
+        return content;
+    }
+
+    public void release(UUID id) {
+        ImageContent content = imageContentRepository.release(id);
+        if (content == null || content.refCount() > 0) {
+            return;
+        }
+        if (imageContentRepository.deleteUnreferenced(id) > 0) {
+            log.info("Last reference to content {} released, scheduling deletion", id);
+            objectDeletionService.deleteImage(id, content.renditions());
+        }
+    }
+}
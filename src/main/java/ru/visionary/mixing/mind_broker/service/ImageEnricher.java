@@ -0,0 +1,39 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.generated.model.ImageResponse;
+import ru.visionary.mixing.mind_broker.repository.CommentRepository;
+import ru.visionary.mixing.mind_broker.repository.LikeRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageEnricher {
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+
+    public void enrich(List<ImageResponse> images, Long currentUserId) {
+        if (images.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ids = images.stream().map(ImageResponse::getUuid).toList();
+        Set<UUID> liked = currentUserId != null ? likeRepository.findLikedImages(currentUserId, ids) : null;
+        Map<UUID, Long> comments = commentRepository.countByImages(ids);
+
+        for (ImageResponse image : images) {
+            image.setComments(comments.getOrDefault(image.getUuid(), 0L));
+            if (liked != null) {
+                image.setLiked(liked.contains(image.getUuid()));
+            }
+        }
+        log.debug("Enriched {} images", images.size());
+    }
+}
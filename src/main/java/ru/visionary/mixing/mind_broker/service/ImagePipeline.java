@@ -0,0 +1,200 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.thumbnailator.resizers.configurations.ScalingMode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import ru.visionary.mixing.mind_broker.config.properties.CompressionProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.config.properties.RenditionProperties;
+import ru.visionary.mixing.mind_broker.entity.ImageHeader;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
+import ru.visionary.mixing.mind_broker.entity.Rendition;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.service.encoder.ImageEncoder;
+import ru.visionary.mixing.mind_broker.service.encoder.ImageEncoders;
+import ru.visionary.mixing.mind_broker.utils.ImageUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImagePipeline {
+    private static final int ADAPTIVE_QUALITY_STEPS = 5;
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final ImageProperties imageProperties;
+    private final CompressionExecutor compressionExecutor;
+    private final ImageEncoders imageEncoders;
+
+    public PreparedImage prepare(MultipartFile file) {
+        return prepare(file, null, true);
+    }
+
+    public PreparedImage prepare(MultipartFile file, CompressionProperties compression) {
+        return prepare(file, compression, false);
+    }
+
+    private PreparedImage prepare(MultipartFile file, CompressionProperties compression, boolean stored) {
+        ImageUtils.checkFile(file);
+
+        MessageDigest digest = stored ? contentDigest() : null;
+        try (InputStream is = digest != null ? new DigestInputStream(file.getInputStream(), digest) : file.getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(is)) {
+            ImageReader reader = ImageUtils.openReader(iis);
+            try {
+                ImageHeader header = ImageUtils.readHeader(reader);
+                log.debug("Image header read - Format: {}, Width: {}, Height: {}", header.format(), header.width(), header.height());
+                ImageUtils.checkHeader(header, imageProperties.validation());
+
+                if (!shouldCompress(file, compression)) {
+                    if (!stored) {
+                        return PreparedImage.original(header, file);
+                    }
+                    List<Rendition> renditions = renditions(reader, header);
+                    return PreparedImage.original(header, file, hash(is, digest), renditions);
+                }
+
+                int subsampling = subsampling(header, compression);
+                log.debug("Decoding image with subsampling {}", subsampling);
+                ImageEncoder encoder = imageEncoders.get(compression.format());
+                byte[] compressed = compressionExecutor.execute(
+                        header.subsampled(subsampling),
+                        () -> encode(resize(read(reader, subsampling), compression), encoder, compression)
+                );
+                compressionExecutor.recordRatio(file.getSize(), compressed.length);
+                log.debug("Image compressed from {} to {} bytes ({}% ratio), Format: {}", file.getSize(), compressed.length, (compressed.length * 100) / file.getSize(), encoder.format());
+
+                return PreparedImage.encoded(header, encoder.contentType(), compressed);
+            } finally {
+                reader.dispose();
+            }
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Image error: not supported file format - {}", e.getMessage());
+            throw new ServiceException(ErrorCode.FILE_FORMAT_NOT_SUPPORTED);
+        }
+    }
+
+    private List<Rendition> renditions(ImageReader reader, ImageHeader header) throws Exception {
+        RenditionProperties renditions = imageProperties.renditions();
+        if (renditions == null || !renditions.enabled()) {
+            return List.of();
+        }
+
+        int longestSide = Math.max(header.width(), header.height());
+        List<Integer> sizes = renditions.sizes().stream()
+                .filter(size -> size < longestSide)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        if (sizes.isEmpty()) {
+            return List.of();
+        }
+
+        int subsampling = subsampling(header, sizes.getFirst(), sizes.getFirst());
+        log.debug("Generating renditions {} with subsampling {}", sizes, subsampling);
+        ImageEncoder encoder = imageEncoders.get(renditions.format());
+        return compressionExecutor.execute(header.subsampled(subsampling), () -> {
+            List<Rendition> result = new ArrayList<>(sizes.size());
+            BufferedImage image = read(reader, subsampling);
+            for (int size : sizes) {
+                image = resize(image, size, size);
+                result.add(new Rendition(size, encoder.contentType(), encoder.encode(image, renditions.quality())));
+            }
+            return result;
+        });
+    }
+
+    private static MessageDigest contentDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hash(InputStream stream, MessageDigest digest) throws IOException {
+        stream.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private boolean shouldCompress(MultipartFile file, CompressionProperties compression) {
+        return compression != null && compression.enabled() && file.getSize() >= compression.minLength();
+    }
+
+    static int subsampling(ImageHeader header, CompressionProperties compression) {
+        return subsampling(header, compression.maxWidth(), compression.maxHeight());
+    }
+
+    static int subsampling(ImageHeader header, int maxWidth, int maxHeight) {
+        double scale = Math.min(
+                (double) maxWidth / header.width(),
+                (double) maxHeight / header.height()
+        );
+        return scale >= 1 ? 1 : (int) Math.floor(1 / scale);
+    }
+
+    private BufferedImage read(ImageReader reader, int subsampling) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        if (subsampling > 1) {
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+        return reader.read(0, param);
+    }
+
+    private BufferedImage resize(BufferedImage image, CompressionProperties compression) throws IOException {
+        return resize(image, compression.maxWidth(), compression.maxHeight());
+    }
+
+    private BufferedImage resize(BufferedImage image, int maxWidth, int maxHeight) throws IOException {
+        return Thumbnails.of(image)
+                .size(maxWidth, maxHeight)
+                .scalingMode(ScalingMode.BICUBIC)
+                .asBufferedImage();
+    }
+
+    private byte[] encode(BufferedImage image, ImageEncoder encoder, CompressionProperties compression) throws IOException {
+        byte[] encoded = encoder.encode(image, compression.quality());
+        if (compression.targetSize() == null || encoded.length <= compression.targetSize()) {
+            return encoded;
+        }
+
+        double low = compression.minQuality();
+        double high = compression.quality();
+        byte[] best = encoder.encode(image, low);
+        if (best.length > compression.targetSize()) {
+            return best;
+        }
+
+        for (int i = 0; i < ADAPTIVE_QUALITY_STEPS; i++) {
+            double quality = (low + high) / 2;
+            encoded = encoder.encode(image, quality);
+            if (encoded.length <= compression.targetSize()) {
+                best = encoded;
+                low = quality;
+            } else {
+                high = quality;
+            }
+        }
+        return best;
+    }
+}
@@ -3,26 +3,29 @@ package ru.visionary.mixing.mind_broker.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import ru.visionary.mixing.generated.model.GetImagesResponse;
 import ru.visionary.mixing.generated.model.ImageResponse;
 import ru.visionary.mixing.generated.model.SaveImageResponse;
 import ru.visionary.mixing.generated.model.UpdateImageRequest;
+import ru.visionary.mixing.mind_broker.entity.Download;
+import ru.visionary.mixing.mind_broker.entity.FeedChangedEvent;
 import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
 import ru.visionary.mixing.mind_broker.entity.Protection;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 import ru.visionary.mixing.mind_broker.repository.ImageRepository;
-import ru.visionary.mixing.mind_broker.repository.LikeRepository;
 import ru.visionary.mixing.mind_broker.repository.UserRepository;
 import ru.visionary.mixing.mind_broker.service.mapper.ImageMapper;
-import ru.visionary.mixing.mind_broker.utils.ImageUtils;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,11 +35,17 @@ import java.util.UUID;
 public class ImageService {
     private final ImageRepository imageRepository;
     private final UserRepository userRepository;
-    private final LikeRepository likeRepository;
     private final MinioService minioService;
+    private final ObjectDeletionService objectDeletionService;
+    private final ImageContentService imageContentService;
+    private final TimelineService timelineService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DownloadService downloadService;
+    private final ImagePipeline imagePipeline;
     private final ImageMapper imageMapper;
+    private final ImageEnricher imageEnricher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
     public SaveImageResponse saveImage(MultipartFile image, String protection) {
         log.info("Image upload started. Size: {} bytes, Type: {}", image.getSize(), image.getContentType());
 
@@ -48,7 +57,7 @@ public class ImageService {
             throw new ServiceException(ErrorCode.INVALID_REQUEST);
         }
 
-        ImageUtils.checkImage(image);
+        PreparedImage prepared = imagePipeline.prepare(image);
 
         User user = SecurityContextUtils.getAuthenticatedUser();
         if (user == null) {
@@ -62,25 +71,90 @@ public class ImageService {
 
         log.debug("Processing image metadata. User: {}", user.email());
 
-        LocalDateTime now = LocalDateTime.now();
-        UUID uuid = imageRepository.save(Image.builder()
+        ImageContent content = storeContent(prepared);
+
+        UUID uuid = createImage(Image.builder()
                 .owner(user)
                 .protection(imageProtection)
-                .createdAt(now)
+                .renditions(content.renditions())
+                .content(content.id())
                 .build());
 
-        log.debug("Uploading to MinIO. UUID: {}", uuid);
-        minioService.uploadImage(image, uuid);
-
         log.info("Image successfully saved. UUID: {}, Protection: {}", uuid, imageProtection);
 
         return new SaveImageResponse(uuid);
     }
 
+    UUID createImage(Image image) {
+        try {
+            return transactionTemplate.execute(status -> {
+                UUID uuid = imageRepository.save(image);
+                if (image.protection() == Protection.PUBLIC) {
+                    timelineService.publish(uuid, image.owner().id());
+                    eventPublisher.publishEvent(FeedChangedEvent.images());
+                }
+                return uuid;
+            });
+        } catch (RuntimeException e) {
+            imageContentService.release(image.content());
+            throw e;
+        }
+    }
+
+    private ImageContent storeContent(PreparedImage prepared) {
+        ImageContent content = imageContentService.acquire(prepared.hash());
+        if (content != null) {
+            return content;
+        }
+
+        UUID contentId = UUID.randomUUID();
+        log.debug("Uploading to MinIO. Content: {}", contentId);
+        try {
+            minioService.uploadImage(prepared, contentId);
+            minioService.uploadImageRenditions(prepared.renditions(), contentId);
+        } catch (RuntimeException e) {
+            objectDeletionService.deleteImage(contentId, prepared.renditionSizes());
+            throw e;
+        }
+        return imageContentService.register(contentId, prepared.hash(), prepared.renditionSizes());
+    }
+
     public ImageResponse getImage(UUID uuid) {
         log.info("Fetching image metadata for UUID: {}", uuid);
 
         User user = SecurityContextUtils.getAuthenticatedUser();
+        Image image = findReadableImage(uuid, user);
+
+        ImageResponse response = imageMapper.toResponse(image);
+        imageEnricher.enrich(List.of(response), user == null ? null : user.id());
+
+        log.info("Successfully retrieved image: {}", uuid);
+        return response;
+    }
+
+    public Download downloadImage(UUID uuid, Integer size, String range, String ifNoneMatch) {
+        log.info("Downloading image {}, size: {}", uuid, size);
+
+        Image image = findReadableImage(uuid, SecurityContextUtils.getAuthenticatedUser());
+
+        String key = image.storageKey().toString();
+        if (size != null) {
+            if (image.renditions() == null || !image.renditions().contains(size)) {
+                log.error("Downloading error: rendition {} not found for image {}", size, uuid);
+                throw new ServiceException(ErrorCode.FILE_NOT_FOUND);
+            }
+            key = MinioService.renditionKey(image.storageKey(), size);
+        }
+
+        return downloadService.download(
+                minioService.statImage(key),
+                downloadService.cacheControl(image.protection()),
+                range,
+                ifNoneMatch
+        );
+    }
+
+    private Image findReadableImage(UUID uuid, User user) {
         Image image = imageRepository.findById(uuid);
 
         if (image == null) {
@@ -104,13 +178,7 @@ public class ImageService {
             throw new ServiceException(ErrorCode.ACCESS_FORBIDDEN);
         }
 
-        Boolean liked = null;
-        if (user != null) {
-            liked = likeRepository.isImageLiked(user.id(), uuid);
-        }
-
-        log.info("Successfully retrieved image: {}", uuid);
-        return imageMapper.toResponse(imageRepository.findById(uuid)).liked(liked);
+        return image;
     }
 
     public GetImagesResponse getImagesForCurrentUser(int size, int page, String protection) {
@@ -138,7 +206,9 @@ public class ImageService {
 
         log.info("Found {} images for user: {}", images.size(), user.email());
 
-        return new GetImagesResponse(imageMapper.toResponse(images));
+        List<ImageResponse> responses = imageMapper.toResponse(images);
+        imageEnricher.enrich(responses, user.id());
+        return new GetImagesResponse(responses);
     }
 
     public GetImagesResponse getImagesByUserId(long userId, int size, int page) {
@@ -159,9 +229,13 @@ public class ImageService {
 
         log.info("Found {} public images for user {}", images.size(), userId);
 
-        return new GetImagesResponse(imageMapper.toResponse(images));
+        User currentUser = SecurityContextUtils.getAuthenticatedUser();
+        List<ImageResponse> responses = imageMapper.toResponse(images);
+        imageEnricher.enrich(responses, currentUser == null ? null : currentUser.id());
+        return new GetImagesResponse(responses);
     }
 
+    @Transactional
     public void updateImage(UUID uuid, UpdateImageRequest request) {
         log.info("Updating protection for image {} to {}", uuid, request.getProtection());
         User user = SecurityContextUtils.getAuthenticatedUser();
@@ -187,7 +261,16 @@ public class ImageService {
             throw new ServiceException(ErrorCode.ACCESS_FORBIDDEN);
         }
 
-        imageRepository.updateProtection(uuid, Protection.valueOf(request.getProtection().getValue().toUpperCase()));
+        Protection protection = Protection.valueOf(request.getProtection().getValue().toUpperCase());
+        imageRepository.updateProtection(uuid, protection);
+        if (protection != image.protection()) {
+            if (protection == Protection.PUBLIC) {
+                timelineService.publish(uuid, image.owner().id());
+            } else {
+                timelineService.retract(uuid);
+            }
+            eventPublisher.publishEvent(FeedChangedEvent.images());
+        }
 
         log.info("Protection updated successfully");
     }
@@ -222,7 +305,14 @@ public class ImageService {
         log.info("Deleting image {}", uuid);
 
         imageRepository.deleteById(uuid);
-        minioService.deleteImage(uuid);
+        if (image.content() != null) {
+            imageContentService.release(image.content());
+        } else {
+            objectDeletionService.deleteImage(uuid, image.renditions());
+        }
+        if (image.protection() == Protection.PUBLIC) {
+            eventPublisher.publishEvent(FeedChangedEvent.images());
+        }
 
         log.info("Image deleted successfully");
     }
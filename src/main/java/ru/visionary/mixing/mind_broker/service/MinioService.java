@@ -1,67 +1,358 @@
 package ru.visionary.mixing.mind_broker.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import ru.visionary.mixing.mind_broker.config.properties.MinioProperties;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
+import ru.visionary.mixing.mind_broker.entity.Rendition;
+import ru.visionary.mixing.mind_broker.entity.StoredObject;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MinioService {
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
     private final MinioClient minioClient;
     private final MinioProperties properties;
+    private final MultipartUploader multipartUploader;
+    private final MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createBuckets() {
+        if (!properties.createBuckets()) {
+            return;
+        }
+        List<String> buckets = List.of(
+                properties.imagesBucket(),
+                properties.avatarsBucket(),
+                properties.stagingBucket(),
+                properties.resultsBucket(),
+                properties.uploadsBucket()
+        );
+        for (String bucket : buckets) {
+            try {
+                if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                    minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                    log.info("Created MinIO bucket {}", bucket);
+                }
+            } catch (Exception e) {
+                log.error("Failed to create MinIO bucket {}: {}", bucket, e.getMessage());
+            }
+        }
+    }
 
-    public void uploadImage(MultipartFile image, UUID uuid) {
-        uploadFile(image, uuid, properties.imagesBucket());
+    public void uploadImage(PreparedImage image, UUID uuid) {
+        try (InputStream stream = image.openStream()) {
+            uploadFile(stream, image.size(), image.contentType(), uuid.toString(), properties.imagesBucket());
+        } catch (ServiceException se) {
+            throw se;
+        } catch (Exception e) {
+            log.error("Failed to open file {} for MinIO bucket {}: {}", uuid, properties.imagesBucket(), e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO);
+        }
     }
 
     public void uploadAvatar(MultipartFile avatar, UUID uuid) {
         uploadFile(avatar, uuid, properties.avatarsBucket());
     }
 
-    private void uploadFile(MultipartFile file, UUID uuid, String bucket) {
-        log.info("Uploading file {} to MinIO bucket {}", uuid, bucket);
+    public void uploadImageRenditions(List<Rendition> renditions, UUID uuid) {
+        uploadRenditions(renditions, uuid, properties.imagesBucket());
+    }
+
+    public void uploadAvatarRenditions(List<Rendition> renditions, UUID uuid) {
+        uploadRenditions(renditions, uuid, properties.avatarsBucket());
+    }
+
+    public static String renditionKey(UUID uuid, int size) {
+        return uuid + "/" + size;
+    }
+
+    private void uploadRenditions(List<Rendition> renditions, UUID uuid, String bucket) {
+        for (Rendition rendition : renditions) {
+            uploadFile(
+                    new ByteArrayInputStream(rendition.data()),
+                    rendition.data().length,
+                    rendition.contentType(),
+                    renditionKey(uuid, rendition.size()),
+                    bucket
+            );
+        }
+    }
+
+    public String presignUpload(UUID uuid, Duration expiry) {
+        String key = uuid.toString();
+        log.debug("Presigning upload of file {} to MinIO bucket {}", key, properties.uploadsBucket());
         try {
-            minioClient.putObject(PutObjectArgs.builder()
+            return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(Method.PUT)
+                    .bucket(properties.uploadsBucket())
+                    .object(key)
+                    .expiry((int) expiry.toSeconds())
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to presign upload of file {} to MinIO bucket {}: {}", key, properties.uploadsBucket(), e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO);
+        }
+    }
+
+    public StoredObjectInfo statUpload(UUID uuid) {
+        return statFile(uuid.toString(), properties.uploadsBucket());
+    }
+
+    public void moveUploadToImages(UUID uuid) {
+        moveUpload(uuid, properties.imagesBucket());
+    }
+
+    public void moveUploadToAvatars(UUID uuid) {
+        moveUpload(uuid, properties.avatarsBucket());
+    }
+
+    private void moveUpload(UUID uuid, String bucket) {
+        String key = uuid.toString();
+        log.info("Copying file {} from MinIO bucket {} to {}", key, properties.uploadsBucket(), bucket);
+        try {
+            minioClient.copyObject(CopyObjectArgs.builder()
                     .bucket(bucket)
-                    .object(uuid.toString())
-                    .stream(file.getInputStream(), file.getSize(), -1)
-                    .contentType(file.getContentType())
+                    .object(key)
+                    .source(CopySource.builder()
+                            .bucket(properties.uploadsBucket())
+                            .object(key)
+                            .build())
                     .build());
-            log.debug("Successfully uploaded file {} to bucket {}", uuid, bucket);
         } catch (Exception e) {
-            log.error("Failed to upload file {} to MinIO bucket {}: {}", uuid, bucket, e.getMessage());
+            log.error("Failed to copy file {} from MinIO bucket {} to {}: {}", key, properties.uploadsBucket(), bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO);
+        }
+        deleteUpload(uuid);
+    }
+
+    public String uploadStagedImage(InputStream stream, long size, String contentType, UUID uuid) {
+        String key = uuid.toString();
+        uploadFile(stream, size, contentType, key, properties.stagingBucket());
+        return key;
+    }
+
+    public String uploadResult(byte[] result, String contentType, UUID uuid) {
+        String key = uuid.toString();
+        uploadFile(new ByteArrayInputStream(result), result.length, contentType, key, properties.resultsBucket());
+        return key;
+    }
+
+    private void uploadFile(MultipartFile file, UUID uuid, String bucket) {
+        try {
+            uploadFile(file.getInputStream(), file.getSize(), file.getContentType(), uuid.toString(), bucket);
+        } catch (ServiceException se) {
+            throw se;
+        } catch (Exception e) {
+            log.error("Failed to open file {} for MinIO bucket {}: {}", uuid, bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO);
+        }
+    }
+
+    private void uploadFile(InputStream stream, long size, String contentType, String key, String bucket) {
+        boolean multipart = multipartUploader.supports(size);
+        log.info("Uploading file {} to MinIO bucket {}{}", key, bucket, multipart ? " in parts" : "");
+        long start = System.nanoTime();
+        try {
+            if (multipart) {
+                multipartUploader.upload(bucket, key, stream, size, contentType).get();
+            } else {
+                minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(key)
+                        .stream(stream, size, -1)
+                        .contentType(contentType)
+                        .build());
+            }
+            recordUpload(bucket, multipart, size, System.nanoTime() - start);
+            log.debug("Successfully uploaded file {} to bucket {}", key, bucket);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to upload file {} to MinIO bucket {}: {}", key, bucket, cause.getMessage());
             throw new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO);
         }
     }
 
-    public void deleteImage(UUID uuid) {
-        deleteFile(uuid, properties.imagesBucket());
+    private void recordUpload(String bucket, boolean multipart, long size, long nanos) {
+        String mode = multipart ? "multipart" : "single";
+        Timer.builder("minio.upload.duration")
+                .tag("bucket", bucket)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("minio.upload.throughput")
+                .baseUnit("bytes/s")
+                .tag("bucket", bucket)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(size * 1_000_000_000d / Math.max(nanos, 1));
+    }
+
+    public byte[] getStagedImage(String key) {
+        return getFile(key, properties.stagingBucket());
+    }
+
+    public StoredObject getResult(String key) {
+        return openFile(key, properties.resultsBucket());
+    }
+
+    public StoredObjectInfo statImage(String key) {
+        return statFile(key, properties.imagesBucket());
     }
 
-    public void deleteAvatar(UUID uuid) {
-        deleteFile(uuid, properties.avatarsBucket());
+    public StoredObjectInfo statAvatar(String key) {
+        return statFile(key, properties.avatarsBucket());
+    }
+
+    private StoredObjectInfo statFile(String key, String bucket) {
+        log.debug("Reading metadata of file {} from MinIO bucket {}", key, bucket);
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(key)
+                    .build());
+            return new StoredObjectInfo(bucket, key, stat.size(), stat.contentType(), stat.etag());
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                log.error("File {} not found in MinIO bucket {}", key, bucket);
+                throw new ServiceException(ErrorCode.FILE_NOT_FOUND);
+            }
+            log.error("Failed to read metadata of file {} from MinIO bucket {}: {}", key, bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_DOWNLOAD_MINIO);
+        } catch (Exception e) {
+            log.error("Failed to read metadata of file {} from MinIO bucket {}: {}", key, bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_DOWNLOAD_MINIO);
+        }
+    }
+
+    public InputStream openObject(StoredObjectInfo object, long offset, Long length) {
+        log.debug("Opening file {} from MinIO bucket {} at offset {}", object.key(), object.bucket(), offset);
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(object.bucket())
+                    .object(object.key())
+                    .offset(offset)
+                    .length(length)
+                    .matchETag(object.etag())
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to open file {} from MinIO bucket {}: {}", object.key(), object.bucket(), e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_DOWNLOAD_MINIO);
+        }
+    }
+
+    private StoredObject openFile(String key, String bucket) {
+        log.debug("Opening file {} from MinIO bucket {}", key, bucket);
+        try {
+            GetObjectResponse response = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(key)
+                    .build());
+            return new StoredObject(
+                    response,
+                    Long.parseLong(response.headers().get(HttpHeaders.CONTENT_LENGTH)),
+                    response.headers().get(HttpHeaders.CONTENT_TYPE)
+            );
+        } catch (Exception e) {
+            log.error("Failed to open file {} from MinIO bucket {}: {}", key, bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_DOWNLOAD_MINIO);
+        }
+    }
+
+    private byte[] getFile(String key, String bucket) {
+        log.debug("Downloading file {} from MinIO bucket {}", key, bucket);
+        try (GetObjectResponse response = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucket)
+                .object(key)
+                .build())) {
+            return response.readAllBytes();
+        } catch (Exception e) {
+            log.error("Failed to download file {} from MinIO bucket {}: {}", key, bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_DOWNLOAD_MINIO);
+        }
+    }
+
+    public void deleteUpload(UUID uuid) {
+        deleteFile(uuid.toString(), properties.uploadsBucket());
+    }
+
+    public void deleteStagedImage(String key) {
+        deleteFile(key, properties.stagingBucket());
+    }
+
+    public List<String> removeObjects(String bucket, List<String> keys) {
+        log.debug("Deleting {} files from MinIO bucket {}", keys.size(), bucket);
+        try {
+            List<String> failed = new ArrayList<>();
+            Iterable<Result<DeleteError>> results = minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucket)
+                    .objects(keys.stream().map(DeleteObject::new).toList())
+                    .build());
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                log.warn("Failed to delete file {} from MinIO bucket {}: {}", error.objectName(), bucket, error.message());
+                failed.add(error.objectName());
+            }
+            return failed;
+        } catch (Exception e) {
+            log.error("Failed to delete files from MinIO bucket {}: {}", bucket, e.getMessage());
+            throw new ServiceException(ErrorCode.FAILED_DELETE_MINIO);
+        }
     }
 
-    private void deleteFile(UUID uuid, String bucket) {
-        log.debug("Deleting file {} from MinIO bucket {}", uuid, bucket);
+    private void deleteFile(String key, String bucket) {
+        log.debug("Deleting file {} from MinIO bucket {}", key, bucket);
         try {
             minioClient.removeObject(RemoveObjectArgs.builder()
                     .bucket(bucket)
-                    .object(uuid.toString())
+                    .object(key)
                     .build());
-            log.info("Successfully deleted file {} from bucket {}", uuid, bucket);
+            log.info("Successfully deleted file {} from bucket {}", key, bucket);
         } catch (Exception e) {
-            log.error("Failed to delete file {} from MinIO bucket {}: {}", uuid, bucket, e.getMessage());
+            log.error("Failed to delete file {} from MinIO bucket {}: {}", key, bucket, e.getMessage());
             throw new ServiceException(ErrorCode.FAILED_DELETE_MINIO);
         }
     }
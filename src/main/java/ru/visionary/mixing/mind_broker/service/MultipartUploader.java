@@ -0,0 +1,128 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import ru.visionary.mixing.mind_broker.config.properties.MinioProperties;
+import ru.visionary.mixing.mind_broker.config.properties.MultipartUploadProperties;
+
+import java.io.EOFException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MultipartUploader {
+    private final MinioAsyncClient minioAsyncClient;
+    private final MinioProperties minioProperties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public boolean supports(long size) {
+        MultipartUploadProperties multipart = minioProperties.multipart();
+        return multipart != null && multipart.enabled() && size >= multipart.threshold().toBytes();
+    }
+
+    public CompletableFuture<Void> upload(String bucket, String key, InputStream stream, long size, String contentType) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        executor.execute(() -> run(bucket, key, stream, size, contentType, result));
+        return result;
+    }
+
+    private void run(String bucket, String key, InputStream stream, long size, String contentType, CompletableFuture<Void> result) {
+        MultipartUploadProperties multipart = minioProperties.multipart();
+        Semaphore inFlight = new Semaphore(multipart.concurrency());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        String uploadId = null;
+
+        try {
+            uploadId = minioAsyncClient.createMultipartUploadAsync(
+                    bucket, null, key, ImmutableMultimap.of(HttpHeaders.CONTENT_TYPE, contentType), null
+            ).get().result().uploadId();
+            log.debug("Started multipart upload {} of file {} to bucket {}", uploadId, key, bucket);
+
+            long remaining = size;
+            int partNumber = 1;
+            while (remaining > 0) {
+                inFlight.acquire();
+                checkActive(result, failure);
+
+                int length = (int) Math.min(multipart.partSize().toBytes(), remaining);
+                byte[] buffer = stream.readNBytes(length);
+                if (buffer.length < length) {
+                    inFlight.release();
+                    throw new EOFException("Stream ended after " + (size - remaining + buffer.length) + " of " + size + " bytes");
+                }
+
+                int number = partNumber++;
+                parts.add(minioAsyncClient.uploadPartAsync(bucket, null, key, buffer, length, uploadId, number, null, null)
+                        .thenApply(response -> new Part(number, response.etag()))
+                        .whenComplete((part, e) -> {
+                            if (e != null) {
+                                failure.compareAndSet(null, e);
+                            }
+                            inFlight.release();
+                        }));
+                remaining -= length;
+            }
+
+            Part[] uploaded = CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> parts.stream().map(CompletableFuture::join).toArray(Part[]::new))
+                    .get();
+            checkActive(result, failure);
+
+            minioAsyncClient.completeMultipartUploadAsync(bucket, null, key, uploadId, uploaded, null, null).get();
+            log.debug("Completed multipart upload {} of file {} in {} parts", uploadId, key, uploaded.length);
+            result.complete(null);
+        } catch (Throwable e) {
+            parts.forEach(part -> part.cancel(true));
+            if (uploadId != null) {
+                abort(bucket, key, uploadId);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void checkActive(CompletableFuture<Void> result, AtomicReference<Throwable> failure) {
+        if (result.isCancelled()) {
+            throw new CancellationException("Multipart upload canceled");
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            throw new IllegalStateException("Multipart upload part failed", e);
+        }
+    }
+
+    private void abort(String bucket, String key, String uploadId) {
+        try {
+            minioAsyncClient.abortMultipartUploadAsync(bucket, null, key, uploadId, null, null).get();
+            log.info("Aborted multipart upload {} of file {} to bucket {}", uploadId, key, bucket);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Failed to abort multipart upload {} of file {} to bucket {}: {}", uploadId, key, bucket, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.config.properties.MinioProperties;
+import ru.visionary.mixing.mind_broker.repository.ObjectDeletionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ObjectDeletionService {
+    private final ObjectDeletionRepository objectDeletionRepository;
+    private final MinioProperties minioProperties;
+
+    public void deleteImage(UUID uuid, List<Integer> renditions) {
+        schedule(minioProperties.imagesBucket(), uuid, renditions);
+    }
+
+    public void deleteAvatar(UUID uuid, List<Integer> renditions) {
+        schedule(minioProperties.avatarsBucket(), uuid, renditions);
+    }
+
+    public void deleteUpload(UUID uuid) {
+        schedule(minioProperties.uploadsBucket(), uuid, null);
+    }
+
+    public void deleteResults(List<String> keys) {
+        log.debug("Scheduling deletion of {} files from MinIO bucket {}", keys.size(), minioProperties.resultsBucket());
+        objectDeletionRepository.saveAll(minioProperties.resultsBucket(), keys);
+    }
+
+    private void schedule(String bucket, UUID uuid, List<Integer> renditions) {
+        List<String> keys = new ArrayList<>();
+        keys.add(uuid.toString());
+        if (renditions != null) {
+            renditions.forEach(size -> keys.add(MinioService.renditionKey(uuid, size)));
+        }
+
+        log.debug("Scheduling deletion of {} files from MinIO bucket {}", keys.size(), bucket);
+        objectDeletionRepository.saveAll(bucket, keys);
+    }
+}
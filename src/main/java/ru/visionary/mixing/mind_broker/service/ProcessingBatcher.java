@@ -0,0 +1,191 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import feign.Request.Options;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.client.MegamindClient;
+import ru.visionary.mixing.mind_broker.client.dto.BatchImage;
+import ru.visionary.mixing.mind_broker.client.dto.BatchProcessedImage;
+import ru.visionary.mixing.mind_broker.client.dto.ImageBatchProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageBatchProcessingResponse;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
+import ru.visionary.mixing.mind_broker.config.properties.BatchingProperties;
+import ru.visionary.mixing.mind_broker.config.properties.MegamindProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ProcessingProperties;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ProcessingBatcher {
+    private final MegamindClient megamindClient;
+    private final MegamindProperties megamindProperties;
+    private final BatchingProperties properties;
+
+    private final Map<BatchKey, Batch> batches = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProcessingBatcher(
+            MegamindClient megamindClient,
+            MegamindProperties megamindProperties,
+            ProcessingProperties processingProperties
+    ) {
+        this.megamindClient = megamindClient;
+        this.megamindProperties = megamindProperties;
+        this.properties = processingProperties.batching();
+    }
+
+    public CompletableFuture<ImageProcessingResponse> submit(UUID id, ImageProcessingRequest request) {
+        BatchKey key = new BatchKey(request.style(), strengthBucket(request.strength()));
+        PendingImage pending = new PendingImage(id, request, new CompletableFuture<>());
+
+        Batch full = null;
+        lock.lock();
+        try {
+            Batch batch = batches.computeIfAbsent(key, this::openBatch);
+            batch.images().add(pending);
+            if (batch.images().size() >= properties.maxSize()) {
+                batches.remove(key);
+                full = batch;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            Batch batch = full;
+            log.debug("Batch is full - Style: {}, Size: {}", key.style(), batch.images().size());
+            dispatch(batch);
+        }
+        return pending.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+
+        List<Batch> open;
+        lock.lock();
+        try {
+            open = new ArrayList<>(batches.values());
+            batches.clear();
+        } finally {
+            lock.unlock();
+        }
+        if (!open.isEmpty()) {
+            log.info("Flushing {} open batches on shutdown", open.size());
+        }
+        open.forEach(this::dispatch);
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(megamindProperties.processingTimeout(), TimeUnit.SECONDS)) {
+                log.warn("Batches are still in flight after shutdown timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Batch openBatch(BatchKey key) {
+        Batch batch = new Batch(key, new ArrayList<>());
+        scheduler.schedule(() -> flush(batch), properties.window().toMillis(), TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    private void flush(Batch batch) {
+        lock.lock();
+        try {
+            if (!batches.remove(batch.key(), batch)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        log.debug("Batch window elapsed - Style: {}, Size: {}", batch.key().style(), batch.images().size());
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            executor.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            log.error("Batch rejected after shutdown - Style: {}, Size: {}", batch.key().style(), batch.images().size());
+            batch.images().forEach(image -> image.result().completeExceptionally(e));
+        }
+    }
+
+    private void send(Batch batch) {
+        List<PendingImage> images = batch.images();
+        Options options = new Options(
+                megamindProperties.processingTimeout(), TimeUnit.SECONDS, megamindProperties.processingTimeout(), TimeUnit.SECONDS, false
+        );
+
+        try {
+            if (images.size() == 1) {
+                PendingImage image = images.get(0);
+                image.result().complete(megamindClient.process(options, image.request()));
+                return;
+            }
+
+            log.info("Calling Megamind batch API - Style: {}, Size: {}", batch.key().style(), images.size());
+            ImageBatchProcessingResponse response = megamindClient.processBatch(options, new ImageBatchProcessingRequest(
+                    images.stream()
+                            .map(image -> new BatchImage(image.id().toString(), image.request().image(), image.request().strength()))
+                            .toList(),
+                    batch.key().style(),
+                    megamindProperties.apiKey()
+            ));
+
+            Map<String, byte[]> processed = response.processed_images().stream()
+                    .collect(Collectors.toMap(BatchProcessedImage::id, BatchProcessedImage::processed_image, (first, second) -> first));
+            for (PendingImage image : images) {
+                byte[] result = processed.get(image.id().toString());
+                if (result == null) {
+                    log.error("Megamind batch response has no result - ID: {}", image.id());
+                    image.result().completeExceptionally(new ServiceException(ErrorCode.MEGAMIND_ERROR));
+                } else {
+                    image.result().complete(new ImageProcessingResponse(result, response.processing_time(), response.style()));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Megamind batch failed - Style: {}, Size: {}, Error: {}", batch.key().style(), images.size(), e.getMessage());
+            images.forEach(image -> image.result().completeExceptionally(e));
+        }
+    }
+
+    private BigDecimal strengthBucket(BigDecimal strength) {
+        if (strength == null || properties.strengthStep() == null) {
+            return null;
+        }
+        BigDecimal step = properties.strengthStep();
+        return strength.divide(step, 0, RoundingMode.HALF_UP).multiply(step);
+    }
+
+    private record BatchKey(String style, BigDecimal strength) {}
+
+    private record Batch(BatchKey key, List<PendingImage> images) {}
+
+    private record PendingImage(UUID id, ImageProcessingRequest request, CompletableFuture<ImageProcessingResponse> result) {}
+}
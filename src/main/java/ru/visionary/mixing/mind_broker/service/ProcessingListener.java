@@ -3,8 +3,10 @@ package ru.visionary.mixing.mind_broker.service;
 import feign.Request.Options;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.client.MegamindAsyncClient;
 import ru.visionary.mixing.mind_broker.client.MegamindClient;
 import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
 import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
@@ -16,9 +18,15 @@ import ru.visionary.mixing.mind_broker.entity.ProcessingStatus;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
+import ru.visionary.mixing.mind_broker.service.mapper.ProcessingMapper;
+import ru.visionary.mixing.mind_broker.utils.ImageUtils;
 import ru.visionary.mixing.mind_broker.websocket.ProcessingWebSocketHandler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -29,10 +37,28 @@ public class ProcessingListener {
     private final ProcessingProperties processingProperties;
     private final MegamindProperties megamindProperties;
     private final MegamindClient megamindClient;
+    private final MegamindAsyncClient megamindAsyncClient;
+    private final ProcessingBatcher processingBatcher;
     private final ProcessingWebSocketHandler processingWebSocketHandler;
+    private final MinioService minioService;
 
-    @RabbitListener(queues = "${app.rabbit.processing-queue}")
-    public void processImage(ProcessingMessage message) {
+    @RabbitListener(queues = "${app.rabbit.processing-queue}", containerFactory = "processingListenerContainerFactory")
+    public CompletableFuture<Void> processImage(ProcessingMessage message) {
+        CompletableFuture<Void> processing;
+        try {
+            processing = process(message);
+        } catch (Exception e) {
+            processing = CompletableFuture.failedFuture(e);
+        }
+        return processing.handle((result, e) -> {
+            if (e != null) {
+                settleFailure(message.uuid(), e);
+            }
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> process(ProcessingMessage message) {
         log.info("Processing started - ID: {}, Style: {}", message.uuid(), message.style());
         LocalDateTime startTime = processingRepository.getStartTimeById(message.uuid());
         LocalDateTime now = LocalDateTime.now();
@@ -44,54 +70,87 @@ public class ProcessingListener {
                     message.uuid(),
                     true
             );
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        try {
-            log.debug("Sending processing status update - ID: {}, Status: PROCESSING", message.uuid());
-            processingWebSocketHandler.sendResult(
-                    new ProcessingResultMessage(null, ProcessingStatus.PROCESSING, null, null),
-                    message.uuid(),
-                    false
-            );
-            processingRepository.updateStatus(message.uuid(), ProcessingStatus.PROCESSING);
+        log.debug("Sending processing status update - ID: {}, Status: PROCESSING", message.uuid());
+        processingWebSocketHandler.sendResult(
+                new ProcessingResultMessage(null, ProcessingStatus.PROCESSING, null, null),
+                message.uuid(),
+                false
+        );
+        processingRepository.updateStatus(message.uuid(), ProcessingStatus.PROCESSING);
 
-            Options options = new Options(
-                    megamindProperties.processingTimeout(), TimeUnit.SECONDS, megamindProperties.processingTimeout(), TimeUnit.SECONDS, false
-            );
+        byte[] image = message.image();
+        if (image == null) {
+            log.debug("Fetching staged image - ID: {}, Key: {}", message.uuid(), message.imageKey());
+            image = minioService.getStagedImage(message.imageKey());
+        }
 
-            log.debug("Calling Megamind API - ID: {}, Timeout: {}s", message.uuid(), megamindProperties.processingTimeout());
+        ImageProcessingRequest request = new ImageProcessingRequest(
+                image, message.style(), message.strength(), megamindProperties.apiKey()
+        );
 
-            ImageProcessingResponse processed = megamindClient.process(
-                    options, new ImageProcessingRequest(message.base64Image(), message.style(), message.strength(), megamindProperties.apiKey())
-            );
+        return callMegamind(message.uuid(), request)
+                .thenAccept(processed -> complete(message.uuid(), processed));
+    }
 
-            log.info("Megamind processing completed - ID: {}, Processing Time: {}", message.uuid(), processed.processing_time());
+    private CompletableFuture<ImageProcessingResponse> callMegamind(UUID uuid, ImageProcessingRequest request) {
+        log.debug("Calling Megamind API - ID: {}, Timeout: {}s", uuid, megamindProperties.processingTimeout());
 
-            processingWebSocketHandler.sendResult(
-                    new ProcessingResultMessage(processed.processed_image(), ProcessingStatus.COMPLETED, null, null),
-                    message.uuid(),
-                    true
-            );
-            processingRepository.updateStatus(message.uuid(), ProcessingStatus.COMPLETED);
-        } catch (ServiceException se) {
-            log.error("Processing failed - ID: {}, Error: {}", message.uuid(), se.getErrorCode().getMessage());
-            processingRepository.updateStatus(message.uuid(), ProcessingStatus.FAILED);
-            ErrorCode errorCode = se.getErrorCode();
-            processingWebSocketHandler.sendResult(
-                    new ProcessingResultMessage(null, ProcessingStatus.FAILED, errorCode.getErrorCode(), errorCode.getMessage()),
-                    message.uuid(),
-                    true
-            );
-        } catch (Exception e) {
-            log.error("Unexpected processing error - ID: {}, Error: {}", message.uuid(), e.getMessage());
-            processingRepository.updateStatus(message.uuid(), ProcessingStatus.FAILED);
-            ErrorCode errorCode = ErrorCode.INTERNAL_ERROR;
-            processingWebSocketHandler.sendResult(
-                    new ProcessingResultMessage(null, ProcessingStatus.FAILED, errorCode.getErrorCode(), errorCode.getMessage()),
-                    message.uuid(),
-                    true
-            );
+        if (processingProperties.batching().enabled()) {
+            return processingBatcher.submit(uuid, request);
+        }
+        if (megamindProperties.async().enabled()) {
+            return megamindAsyncClient.process(request, Duration.ofSeconds(megamindProperties.processingTimeout()));
+        }
+
+        Options options = new Options(
+                megamindProperties.processingTimeout(), TimeUnit.SECONDS, megamindProperties.processingTimeout(), TimeUnit.SECONDS, false
+        );
+        return CompletableFuture.completedFuture(megamindClient.process(options, request));
+    }
+
+    private void complete(UUID uuid, ImageProcessingResponse processed) {
+        log.info("Megamind processing completed - ID: {}, Processing Time: {}", uuid, processed.processing_time());
+
+        byte[] result = processed.processed_image();
+        String resultKey = minioService.uploadResult(result, ImageUtils.detectContentType(result), uuid);
+        processingRepository.completeWithResult(uuid, resultKey);
+
+        processingWebSocketHandler.sendResult(
+                new ProcessingResultMessage(ProcessingMapper.resultUrl(uuid), ProcessingStatus.COMPLETED, null, null),
+                uuid,
+                true
+        );
+    }
+
+    private void settleFailure(UUID uuid, Throwable e) {
+        try {
+            fail(uuid, e);
+        } catch (Exception failure) {
+            log.error("Failed to record processing failure, rejecting message - ID: {}, Error: {}", uuid, failure.getMessage());
+            throw new AmqpRejectAndDontRequeueException("Processing " + uuid + " failed", failure);
         }
     }
+
+    private void fail(UUID uuid, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        ErrorCode errorCode;
+        if (cause instanceof ServiceException se) {
+            log.error("Processing failed - ID: {}, Error: {}", uuid, se.getErrorCode().getMessage());
+            errorCode = se.getErrorCode();
+        } else {
+            log.error("Unexpected processing error - ID: {}, Error: {}", uuid, cause.getMessage());
+            errorCode = ErrorCode.INTERNAL_ERROR;
+        }
+
+        processingRepository.updateStatus(uuid, ProcessingStatus.FAILED);
+        processingWebSocketHandler.sendResult(
+                new ProcessingResultMessage(null, ProcessingStatus.FAILED, errorCode.getErrorCode(), errorCode.getMessage()),
+                uuid,
+                true
+        );
+    }
 }
@@ -2,13 +2,13 @@ package ru.visionary.mixing.mind_broker.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import ru.visionary.mixing.generated.model.ProcessingImageResponse;
 import ru.visionary.mixing.generated.model.ProcessingStatusResponse;
-import ru.visionary.mixing.mind_broker.config.properties.CompressionProperties;
+import ru.visionary.mixing.mind_broker.config.properties.PriorityProperties;
 import ru.visionary.mixing.mind_broker.config.properties.ProcessingProperties;
 import ru.visionary.mixing.mind_broker.config.properties.RabbitProperties;
 import ru.visionary.mixing.mind_broker.entity.*;
@@ -17,15 +17,11 @@ import ru.visionary.mixing.mind_broker.exception.ServiceException;
 import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
 import ru.visionary.mixing.mind_broker.repository.StyleRepository;
 import ru.visionary.mixing.mind_broker.service.mapper.ProcessingMapper;
-import ru.visionary.mixing.mind_broker.utils.ImageUtils;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
-import java.util.Base64;
 import java.util.UUID;
 
 @Service
@@ -38,9 +34,11 @@ public class ProcessingService {
     private final RabbitProperties rabbitProperties;
     private final ProcessingProperties processingProperties;
     private final ProcessingMapper processingMapper;
+    private final MinioService minioService;
+    private final ImagePipeline imagePipeline;
+    private final TransactionTemplate transactionTemplate;
 
     public ProcessingImageResponse processImage(MultipartFile image, String style, BigDecimal strength) {
-        ImageUtils.checkImage(image);
         log.info("Starting image processing - Style: {}, Strength: {}, Original Size: {} bytes", style, strength, image.getSize());
 
         User user = SecurityContextUtils.getAuthenticatedUser();
@@ -63,25 +61,56 @@ public class ProcessingService {
             throw new ServiceException(ErrorCode.STYLE_NOT_SUPPORTED);
         }
 
-        String base64Image = convertImage(image);
-        log.debug("Image converted to base64 - Size: {} characters", base64Image.length());
+        PreparedImage prepared = imagePipeline.prepare(image, processingProperties.compression());
 
         UUID id = UUID.randomUUID();
+        boolean staging = processingProperties.staging().enabled();
         Processing processing = Processing.builder()
                 .id(id)
                 .user(user)
                 .style(styleEntity)
+                .stagedImage(staging ? id.toString() : null)
                 .build();
-        processingRepository.save(processing);
+        int activeProcessing = transactionTemplate.execute(status -> {
+            processingRepository.lockUser(user.id());
+            int active = processingRepository.countActiveByUser(user.id());
+            if (!user.admin() && active >= processingProperties.maxActivePerUser()) {
+                log.warn("Processing error: user {} has {} active processing requests", user.id(), active);
+                throw new ServiceException(ErrorCode.TOO_MANY_PROCESSING);
+            }
+            processingRepository.save(processing);
+            return active;
+        });
         log.info("Processing task created - ID: {}, User: {}, Style: {}", id, user.id(), styleEntity.id());
 
+        ProcessingMessage message;
+        try {
+            if (staging) {
+                String imageKey = stageImage(prepared, id);
+                log.debug("Image staged in MinIO - ID: {}, Key: {}", id, imageKey);
+                message = new ProcessingMessage(id, null, style, strength, imageKey);
+            } else {
+                byte[] imageBytes = imageBytes(prepared);
+                log.debug("Image prepared for queue - Size: {} bytes, Transport: {}", imageBytes.length, rabbitProperties.processingTransport());
+                message = new ProcessingMessage(id, imageBytes, style, strength, null);
+            }
+        } catch (RuntimeException e) {
+            processingRepository.updateStatus(id, ProcessingStatus.FAILED);
+            throw e;
+        }
+
         try {
+            int priority = priority(user, image, activeProcessing);
             amqpTemplate.convertAndSend(
                     rabbitProperties.processingExchange(),
                     "",
-                    new ProcessingMessage(id, base64Image, style, strength)
+                    message,
+                    amqpMessage -> {
+                        amqpMessage.getMessageProperties().setPriority(priority);
+                        return amqpMessage;
+                    }
             );
-            log.info("Processing task sent to queue - ID: {}, Exchange: {}", id, rabbitProperties.processingExchange());
+            log.info("Processing task sent to queue - ID: {}, Exchange: {}, Priority: {}", id, rabbitProperties.processingExchange(), priority);
         } catch (Exception e) {
             log.error("Failed to send processing task to queue - ID: {}, Error: {}", id, e.getMessage());
             processingRepository.updateStatus(id, ProcessingStatus.FAILED);
@@ -114,51 +143,71 @@ public class ProcessingService {
         return processingMapper.toResponse(processing);
     }
 
+    public StoredObject getResult(UUID uuid) {
+        log.debug("Fetching processing result - ID: {}", uuid);
+
+        User user = SecurityContextUtils.getAuthenticatedUser();
+        if (user == null) {
+            log.error("Processing error: user not authorized");
+            throw new ServiceException(ErrorCode.USER_NOT_AUTHORIZED);
+        }
+
+        Processing processing = processingRepository.findById(uuid);
+        if (processing == null) {
+            log.error("Processing error: processing not found");
+            throw new ServiceException(ErrorCode.PROCESSING_NOT_FOUND);
+        }
+        if (!processing.user().id().equals(user.id()) && !user.admin()) {
+            log.error("Processing error: access forbidden");
+            throw new ServiceException(ErrorCode.ACCESS_FORBIDDEN);
+        }
+        if (processing.status() != ProcessingStatus.COMPLETED || processing.result() == null) {
+            log.error("Processing error: result not found - ID: {}, Status: {}", uuid, processing.status());
+            throw new ServiceException(ErrorCode.PROCESSING_RESULT_NOT_FOUND);
+        }
+
+        log.info("Streaming processing result - ID: {}", uuid);
+        return minioService.getResult(processing.result());
+    }
+
     public boolean cancelProcessing(UUID id) {
         int affected = processingRepository.cancelPending(id);
 
         return affected > 0;
     }
 
-    private String convertImage(MultipartFile image) {
-        byte[] imageBytes;
-        try {
-            imageBytes = image.getBytes();
-            if (processingProperties.compression().enabled()) {
-                log.debug("Attempting image compression - Original Size: {} bytes", imageBytes.length);
-                try {
-                    imageBytes = compressImage(imageBytes);
-                } catch (IOException ignored) {}
-            }
-        } catch (IOException e) {
-            log.error("Image conversion error: {}", e.getMessage());
-            throw new ServiceException(ErrorCode.INVALID_REQUEST);
+    private int priority(User user, MultipartFile image, int activeProcessing) {
+        PriorityProperties priorityProperties = rabbitProperties.processingPriority();
+        if (!priorityProperties.enabled()) {
+            return 0;
         }
 
-        return Base64.getEncoder().encodeToString(imageBytes);
+        int maxPriority = priorityProperties.maxPriority();
+        if (user.admin()) {
+            return maxPriority;
+        }
+        int priority = Math.max(0, maxPriority - 1 - activeProcessing);
+        if (image.getSize() <= priorityProperties.smallImageSize()) {
+            priority = Math.min(priority + 1, maxPriority - 1);
+        }
+        return Math.max(0, priority);
     }
 
-    private byte[] compressImage(byte[] original) throws IOException {
-        CompressionProperties compressionProperties = processingProperties.compression();
-
-        if (original.length < compressionProperties.minLength()) {
-            return original;
+    private String stageImage(PreparedImage image, UUID id) {
+        try (InputStream is = image.openStream()) {
+            return minioService.uploadStagedImage(is, image.size(), image.contentType(), id);
+        } catch (IOException e) {
+            log.error("Image staging error: {}", e.getMessage());
+            throw new ServiceException(ErrorCode.INVALID_REQUEST);
         }
+    }
 
-        try (InputStream is = new ByteArrayInputStream(original);
-             ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-
-            Thumbnails.of(is)
-                    .size(compressionProperties.maxWidth(), compressionProperties.maxHeight())
-                    .outputFormat("jpg")
-                    .outputQuality(compressionProperties.quality())
-                    .toOutputStream(os);
-
-            byte[] compressed = os.toByteArray();
-
-            log.debug("Image compressed from {} to {} bytes ({}% ratio)", original.length, compressed.length, (compressed.length * 100) / original.length);
-
-            return compressed;
+    private byte[] imageBytes(PreparedImage image) {
+        try {
+            return image.bytes();
+        } catch (IOException e) {
+            log.error("Image conversion error: {}", e.getMessage());
+            throw new ServiceException(ErrorCode.INVALID_REQUEST);
         }
     }
 }
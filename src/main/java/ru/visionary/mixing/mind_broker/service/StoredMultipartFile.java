@@ -0,0 +1,67 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.web.multipart.MultipartFile;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+@RequiredArgsConstructor
+class StoredMultipartFile implements MultipartFile {
+    private final MinioService minioService;
+    private final StoredObjectInfo object;
+
+    @Override
+    public String getName() {
+        return object.key();
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        try {
+            return object.key() + "." + MimeType.valueOf(object.contentType()).getSubtype();
+        } catch (InvalidMimeTypeException e) {
+            return object.key();
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return object.contentType();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return object.size() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return object.size();
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        try (InputStream stream = getInputStream()) {
+            return stream.readAllBytes();
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return minioService.openObject(object, 0, null);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        try (InputStream stream = getInputStream()) {
+            Files.copy(stream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
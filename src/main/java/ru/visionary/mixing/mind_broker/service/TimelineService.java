@@ -0,0 +1,86 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.visionary.mixing.mind_broker.config.properties.TimelineProperties;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.repository.FeedRepository;
+import ru.visionary.mixing.mind_broker.repository.TimelineRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService {
+    private final TimelineRepository timelineRepository;
+    private final FeedRepository feedRepository;
+    private final TimelineProperties properties;
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    public void publish(UUID imageId, long authorId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (isFannedOutOnRead(authorId)) {
+            timelineRepository.markFannedOut(imageId, false);
+            return;
+        }
+        timelineRepository.markFannedOut(imageId, true);
+        int delivered = timelineRepository.fanOut(imageId);
+        int trimmed = timelineRepository.trimFollowers(authorId, properties.capacity());
+        log.debug("Image {} pushed to {} timelines, trimmed {} entries", imageId, delivered, trimmed);
+    }
+
+    public void retract(UUID imageId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        int removed = timelineRepository.removeImage(imageId);
+        log.debug("Image {} removed from {} timelines", imageId, removed);
+    }
+
+    public void follow(long followerId, long authorId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        int added = timelineRepository.addAuthor(followerId, authorId, properties.capacity());
+        int trimmed = added > 0 ? timelineRepository.trim(followerId, properties.capacity()) : 0;
+        log.debug("Added {} images of {} to timeline of {}, trimmed {}", added, authorId, followerId, trimmed);
+    }
+
+    public void unfollow(long followerId, long authorId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        int removed = timelineRepository.removeAuthor(followerId, authorId);
+        log.debug("Removed {} images of {} from timeline of {}", removed, authorId, followerId);
+    }
+
+    public List<Image> getTimeline(long userId, FeedCursor cursor, int size) {
+        List<Image> images = feedRepository.getFeedByTimeline(userId, cursor, size);
+        if (images.size() == size) {
+            return images;
+        }
+        FeedCursor next = images.isEmpty() ? cursor : FeedCursor.after(cursor.sort(), images.getLast());
+        List<Image> older = feedRepository.getFeedByFollow(userId, next, size - images.size());
+        log.debug("Timeline of {} exhausted, loaded {} older images", userId, older.size());
+        return Stream.concat(images.stream(), older.stream()).toList();
+    }
+
+    private boolean isFannedOutOnRead(long authorId) {
+        long followers = timelineRepository.countFollowers(authorId);
+        if (followers >= properties.fanOutLimit()) {
+            log.debug("Skipping fan-out for author {} with {} followers", authorId, followers);
+            return true;
+        }
+        return false;
+    }
+}
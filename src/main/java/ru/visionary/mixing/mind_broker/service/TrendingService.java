@@ -0,0 +1,75 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.visionary.mixing.mind_broker.config.properties.TrendingProperties;
+import ru.visionary.mixing.mind_broker.repository.TrendingRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService {
+    private final TrendingRepository trendingRepository;
+    private final TrendingProperties properties;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of());
+
+    @Transactional
+    public void updateScores() {
+        LocalDateTime watermark = trendingRepository.lockWatermark();
+        LocalDateTime now = trendingRepository.currentTimestamp().minus(properties.commitLag());
+        if (!now.isAfter(watermark)) {
+            log.debug("Trending scores are up to date at {}", watermark);
+            return;
+        }
+        double decayRate = Math.log(2) / properties.halfLife().toSeconds();
+
+        trendingRepository.decayScores(now, decayRate);
+        int scored = trendingRepository.addEvents(watermark, now, decayRate, properties.likeWeight(), properties.commentWeight());
+        int dropped = trendingRepository.deleteBelow(properties.minScore());
+        trendingRepository.updateWatermark(now);
+
+        log.info("Trending scores updated since {} - Scored: {}, Dropped: {}", watermark, scored, dropped);
+    }
+
+    public void refreshSnapshot() {
+        List<UUID> ids = trendingRepository.findTop(properties.size());
+        Map<UUID, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        snapshot = new Snapshot(ids, positions);
+        log.debug("Trending snapshot refreshed - Size: {}", ids.size());
+    }
+
+    public List<UUID> page(int offset, int size) {
+        List<UUID> ids = snapshot.ids();
+        if (offset < 0 || offset >= ids.size()) {
+            return List.of();
+        }
+        return ids.subList(offset, Math.min(offset + size, ids.size()));
+    }
+
+    public int offsetAfter(UUID id) {
+        Integer position = snapshot.positions().get(id);
+        if (position == null) {
+            log.debug("Trending cursor {} left the snapshot, restarting from the top", id);
+            return 0;
+        }
+        return position + 1;
+    }
+
+    public boolean hasMore(int offset) {
+        return offset < snapshot.ids().size();
+    }
+
+    private record Snapshot(List<UUID> ids, Map<UUID, Integer> positions) {}
+}
@@ -0,0 +1,218 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.visionary.mixing.generated.model.SaveImageResponse;
+import ru.visionary.mixing.generated.model.UploadResponse;
+import ru.visionary.mixing.mind_broker.config.properties.UploadProperties;
+import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
+import ru.visionary.mixing.mind_broker.entity.Upload;
+import ru.visionary.mixing.mind_broker.entity.UploadTarget;
+import ru.visionary.mixing.mind_broker.entity.User;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.repository.UploadRepository;
+import ru.visionary.mixing.mind_broker.repository.UserRepository;
+import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadService {
+    private final UploadRepository uploadRepository;
+    private final ImageService imageService;
+    private final UserRepository userRepository;
+    private final MinioService minioService;
+    private final ObjectDeletionService objectDeletionService;
+    private final ImageContentService imageContentService;
+    private final ImagePipeline imagePipeline;
+    private final UploadProperties uploadProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public UploadResponse createImageUpload(String protection) {
+        log.info("Creating direct image upload. Protection: {}", protection);
+
+        Protection imageProtection;
+        try {
+            imageProtection = Protection.valueOf(protection.toUpperCase());
+        } catch (Exception e) {
+            log.error("Uploading error: protection invalid");
+            throw new ServiceException(ErrorCode.INVALID_REQUEST);
+        }
+
+        return createUpload(getActiveUser(), UploadTarget.IMAGE, imageProtection);
+    }
+
+    public UploadResponse createAvatarUpload() {
+        log.info("Creating direct avatar upload");
+        return createUpload(getActiveUser(), UploadTarget.AVATAR, null);
+    }
+
+    private UploadResponse createUpload(User user, UploadTarget target, Protection protection) {
+        UUID uuid = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(uploadProperties.expiry());
+
+        uploadRepository.save(Upload.builder()
+                .id(uuid)
+                .owner(user)
+                .target(target)
+                .protection(protection)
+                .expiresAt(expiresAt)
+                .build());
+        String uploadUrl = minioService.presignUpload(uuid, uploadProperties.expiry());
+
+        log.info("Direct upload {} created for user {}, expires at {}", uuid, user.id(), expiresAt);
+        return new UploadResponse(uuid, uploadUrl, expiresAt.atZone(ZoneId.systemDefault()).toOffsetDateTime());
+    }
+
+    public SaveImageResponse completeImageUpload(UUID uuid) {
+        log.info("Completing direct image upload {}", uuid);
+
+        User user = getActiveUser();
+        Upload upload = findUpload(uuid, user, UploadTarget.IMAGE);
+        StoredMultipartFile file = uploadedFile(uuid);
+        claimUpload(uuid);
+
+        ImageContent content;
+        try {
+            content = storeContent(uuid, imagePipeline.prepare(file));
+        } catch (RuntimeException e) {
+            objectDeletionService.deleteUpload(uuid);
+            throw e;
+        }
+
+        imageService.createImage(Image.builder()
+                .id(uuid)
+                .owner(user)
+                .protection(upload.protection())
+                .renditions(content.renditions())
+                .content(content.id())
+                .build());
+
+        log.info("Image successfully saved from direct upload. UUID: {}, Protection: {}", uuid, upload.protection());
+        return new SaveImageResponse(uuid);
+    }
+
+    private ImageContent storeContent(UUID uuid, PreparedImage prepared) {
+        ImageContent content = imageContentService.acquire(prepared.hash());
+        if (content == null) {
+            try {
+                minioService.moveUploadToImages(uuid);
+                minioService.uploadImageRenditions(prepared.renditions(), uuid);
+            } catch (RuntimeException e) {
+                objectDeletionService.deleteImage(uuid, prepared.renditionSizes());
+                throw e;
+            }
+            content = imageContentService.register(uuid, prepared.hash(), prepared.renditionSizes());
+            if (content.id().equals(uuid)) {
+                return content;
+            }
+        }
+
+        log.debug("Upload {} duplicates stored content {}", uuid, content.id());
+        objectDeletionService.deleteUpload(uuid);
+        return content;
+    }
+
+    public void completeAvatarUpload(UUID uuid) {
+        log.info("Completing direct avatar upload {}", uuid);
+
+        User user = getActiveUser();
+        findUpload(uuid, user, UploadTarget.AVATAR);
+        StoredMultipartFile file = uploadedFile(uuid);
+        claimUpload(uuid);
+
+        PreparedImage prepared;
+        try {
+            prepared = imagePipeline.prepare(file);
+        } catch (RuntimeException e) {
+            objectDeletionService.deleteUpload(uuid);
+            throw e;
+        }
+
+        try {
+            minioService.moveUploadToAvatars(uuid);
+            minioService.uploadAvatarRenditions(prepared.renditions(), uuid);
+        } catch (RuntimeException e) {
+            objectDeletionService.deleteAvatar(uuid, prepared.renditionSizes());
+            objectDeletionService.deleteUpload(uuid);
+            throw e;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.updateUser(user.id(), null, null, null, uuid, prepared.renditionSizes());
+                if (user.avatar() != null) {
+                    objectDeletionService.deleteAvatar(user.avatar(), user.avatarRenditions());
+                }
+            });
+        } catch (RuntimeException e) {
+            objectDeletionService.deleteAvatar(uuid, prepared.renditionSizes());
+            throw e;
+        }
+
+        log.info("Avatar of user {} updated from direct upload {}", user.id(), uuid);
+    }
+
+    private User getActiveUser() {
+        User user = SecurityContextUtils.getAuthenticatedUser();
+        if (user == null) {
+            log.error("Uploading error: user not authorized");
+            throw new ServiceException(ErrorCode.USER_NOT_AUTHORIZED);
+        }
+        if (!user.active()) {
+            log.error("Uploading error: user is inactive");
+            throw new ServiceException(ErrorCode.CURRENT_USER_DELETED);
+        }
+        return user;
+    }
+
+    private Upload findUpload(UUID uuid, User user, UploadTarget target) {
+        Upload upload = uploadRepository.findById(uuid);
+        if (upload == null
+                || !upload.owner().id().equals(user.id())
+                || upload.target() != target
+                || upload.expiresAt().isBefore(LocalDateTime.now())) {
+            log.error("Uploading error: upload {} not found or expired", uuid);
+            throw new ServiceException(ErrorCode.UPLOAD_NOT_FOUND);
+        }
+        return upload;
+    }
+
+    private void claimUpload(UUID uuid) {
+        if (uploadRepository.deleteById(uuid) == 0) {
+            log.error("Uploading error: upload {} already completed", uuid);
+            throw new ServiceException(ErrorCode.UPLOAD_NOT_FOUND);
+        }
+    }
+
+    private StoredMultipartFile uploadedFile(UUID uuid) {
+        StoredObjectInfo object;
+        try {
+            object = minioService.statUpload(uuid);
+        } catch (ServiceException e) {
+            if (e.getErrorCode() == ErrorCode.FILE_NOT_FOUND) {
+                log.error("Uploading error: file for upload {} was not uploaded", uuid);
+                throw new ServiceException(ErrorCode.UPLOAD_NOT_FOUND);
+            }
+            throw e;
+        }
+
+        if (object.size() > uploadProperties.maxSize().toBytes()) {
+            log.error("Uploading error: file for upload {} is too large - {} bytes", uuid, object.size());
+            minioService.deleteUpload(uuid);
+            throw new ServiceException(ErrorCode.FILE_TOO_LARGE);
+        }
+        return new StoredMultipartFile(minioService, object);
+    }
+}
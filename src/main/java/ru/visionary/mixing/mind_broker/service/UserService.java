@@ -2,11 +2,14 @@ package ru.visionary.mixing.mind_broker.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import ru.visionary.mixing.generated.model.UserResponse;
+import ru.visionary.mixing.mind_broker.entity.Download;
+import ru.visionary.mixing.mind_broker.entity.Rendition;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
@@ -14,9 +17,9 @@ import ru.visionary.mixing.mind_broker.repository.LikeRepository;
 import ru.visionary.mixing.mind_broker.repository.RefreshTokenRepository;
 import ru.visionary.mixing.mind_broker.repository.UserRepository;
 import ru.visionary.mixing.mind_broker.service.mapper.UserMapper;
-import ru.visionary.mixing.mind_broker.utils.ImageUtils;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -27,6 +30,9 @@ public class UserService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final LikeRepository likeRepository;
     private final MinioService minioService;
+    private final ObjectDeletionService objectDeletionService;
+    private final DownloadService downloadService;
+    private final ImagePipeline imagePipeline;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
 
@@ -50,6 +56,36 @@ public class UserService {
         return userMapper.toResponse(user).likes(likes);
     }
 
+    public Download downloadAvatar(long userId, Integer size, String range, String ifNoneMatch) {
+        log.info("Downloading avatar of user {}, size: {}", userId, size);
+
+        User user = userRepository.findById(userId);
+
+        if (user == null) {
+            log.error("Downloading error: user not found");
+            throw new ServiceException(ErrorCode.USER_NOT_FOUND);
+        }
+        if (!user.active()) {
+            log.error("Downloading error: user deleted");
+            throw new ServiceException(ErrorCode.OWNER_DELETED);
+        }
+        if (user.avatar() == null) {
+            log.error("Downloading error: user {} has no avatar", userId);
+            throw new ServiceException(ErrorCode.FILE_NOT_FOUND);
+        }
+
+        String key = user.avatar().toString();
+        if (size != null) {
+            if (user.avatarRenditions() == null || !user.avatarRenditions().contains(size)) {
+                log.error("Downloading error: avatar rendition {} not found for user {}", size, userId);
+                throw new ServiceException(ErrorCode.FILE_NOT_FOUND);
+            }
+            key = MinioService.renditionKey(user.avatar(), size);
+        }
+
+        return downloadService.download(minioService.statAvatar(key), CacheControl.noCache(), range, ifNoneMatch);
+    }
+
     public UserResponse getCurrentUser() {
         log.info("Fetching current user");
         User user = SecurityContextUtils.getAuthenticatedUser();
@@ -103,13 +139,15 @@ public class UserService {
 
         password = password == null ? null : passwordEncoder.encode(password);
         UUID avatarUuid = null;
+        List<Rendition> renditions = List.of();
         if (avatar != null) {
             log.debug("Uploading new avatar for user: {}", userId);
-            ImageUtils.checkImage(avatar);
+            renditions = imagePipeline.prepare(avatar).renditions();
             avatarUuid = UUID.randomUUID();
         }
 
-        userRepository.updateUser(userId, nickname, description, password, avatarUuid);
+        userRepository.updateUser(userId, nickname, description, password, avatarUuid,
+                avatarUuid == null ? null : renditions.stream().map(Rendition::size).toList());
 
         if (password != null) {
             log.info("Password changed, deleting refresh tokens for user: {}", userId);
@@ -119,8 +157,9 @@ public class UserService {
         if (avatarUuid != null) {
             log.debug("Uploading new avatar for user: {}", userId);
             minioService.uploadAvatar(avatar, avatarUuid);
+            minioService.uploadAvatarRenditions(renditions, avatarUuid);
             if (updatingUser.avatar() != null) {
-                minioService.deleteAvatar(updatingUser.avatar());
+                objectDeletionService.deleteAvatar(updatingUser.avatar(), updatingUser.avatarRenditions());
             }
         }
 
@@ -146,13 +185,15 @@ public class UserService {
 
         password = password == null ? null : passwordEncoder.encode(password);
         UUID avatarUuid = null;
+        List<Rendition> renditions = List.of();
         if (avatar != null) {
             log.debug("Uploading new avatar for user: {}", user.id());
-            ImageUtils.checkImage(avatar);
+            renditions = imagePipeline.prepare(avatar).renditions();
             avatarUuid = UUID.randomUUID();
         }
 
-        userRepository.updateUser(user.id(), nickname, description, password, avatarUuid);
+        userRepository.updateUser(user.id(), nickname, description, password, avatarUuid,
+                avatarUuid == null ? null : renditions.stream().map(Rendition::size).toList());
 
         if (password != null) {
             log.info("Password changed, deleting refresh tokens for user: {}", user.id());
@@ -162,8 +203,9 @@ public class UserService {
         if (avatarUuid != null) {
             log.debug("Uploading new avatar for user: {}", user.id());
             minioService.uploadAvatar(avatar, avatarUuid);
+            minioService.uploadAvatarRenditions(renditions, avatarUuid);
             if (user.avatar() != null) {
-                minioService.deleteAvatar(user.avatar());
+                objectDeletionService.deleteAvatar(user.avatar(), user.avatarRenditions());
             }
         }
 
@@ -252,7 +294,7 @@ public class UserService {
         if (avatarUuid != null) {
             log.debug("Deleting avatar file: {}", avatarUuid);
             userRepository.deleteAvatar(userId);
-            minioService.deleteAvatar(avatarUuid);
+            objectDeletionService.deleteAvatar(avatarUuid, user.avatarRenditions());
             log.info("Avatar deleted for user: {}", userId);
         }
     }
@@ -275,7 +317,7 @@ public class UserService {
         if (avatarUuid != null) {
             log.debug("Deleting avatar file: {}", avatarUuid);
             userRepository.deleteAvatar(user.id());
-            minioService.deleteAvatar(avatarUuid);
+            objectDeletionService.deleteAvatar(avatarUuid, user.avatarRenditions());
             log.info("Avatar deleted for user: {}", user.id());
         }
     }
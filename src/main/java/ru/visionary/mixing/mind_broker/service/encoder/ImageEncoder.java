@@ -0,0 +1,14 @@
+package ru.visionary.mixing.mind_broker.service.encoder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+public interface ImageEncoder {
+    String format();
+
+    String contentType();
+
+    boolean available();
+
+    byte[] encode(BufferedImage image, double quality) throws IOException;
+}
@@ -0,0 +1,47 @@
+package ru.visionary.mixing.mind_broker.service.encoder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ImageEncoders {
+    public static final String JPEG = "jpeg";
+
+    private final Map<String, ImageEncoder> encoders;
+
+    public ImageEncoders() {
+        this(List.of(
+                new ImageIoEncoder(JPEG, "image/jpeg", false),
+                new ImageIoEncoder("webp", "image/webp", true),
+                new ImageIoEncoder("avif", "image/avif", true)
+        ));
+    }
+
+    public ImageEncoders(List<ImageEncoder> encoders) {
+        this.encoders = encoders.stream()
+                .filter(encoder -> {
+                    if (!encoder.available()) {
+                        log.warn("Image encoder {} is not available", encoder.format());
+                    }
+                    return encoder.available();
+                })
+                .collect(Collectors.toMap(ImageEncoder::format, Function.identity()));
+    }
+
+    public ImageEncoder get(String format) {
+        ImageEncoder encoder = format == null ? null : encoders.get(format.toLowerCase());
+        if (encoder == null) {
+            if (format != null && !JPEG.equalsIgnoreCase(format)) {
+                log.warn("Image encoder {} is not available, falling back to {}", format, JPEG);
+            }
+            return encoders.get(JPEG);
+        }
+        return encoder;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.visionary.mixing.mind_broker.service.encoder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class ImageIoEncoder implements ImageEncoder {
+    private final String format;
+    private final String contentType;
+    private final boolean supportsAlpha;
+
+    public ImageIoEncoder(String format, String contentType, boolean supportsAlpha) {
+        this.format = format;
+        this.contentType = contentType;
+        this.supportsAlpha = supportsAlpha;
+    }
+
+    @Override
+    public String format() {
+        return format;
+    }
+
+    @Override
+    public String contentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean available() {
+        return ImageIO.getImageWritersByFormatName(format).hasNext();
+    }
+
+    @Override
+    public byte[] encode(BufferedImage image, double quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for format " + format);
+        }
+
+        ImageWriter writer = writers.next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(lossyCompressionType(param.getCompressionTypes()));
+                }
+                param.setCompressionQuality((float) quality);
+            }
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            try (ImageOutputStream ios = ImageIO.createImageOutputStream(os)) {
+                writer.setOutput(ios);
+                writer.write(null, new IIOImage(prepare(image), null, null), param);
+            }
+            return os.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private BufferedImage prepare(BufferedImage image) {
+        if (supportsAlpha || !image.getColorModel().hasAlpha()) {
+            return image;
+        }
+
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private String lossyCompressionType(String[] types) {
+        return Arrays.stream(types)
+                .filter(type -> type.toLowerCase().contains("lossy"))
+                .findFirst()
+                .orElse(types[0]);
+    }
+}
@@ -12,6 +12,11 @@ public interface ImageMapper {
     @Mapping(target = "uuid", source = "id")
     @Mapping(target = "authorId", source = "image.owner.id")
     @Mapping(target = "authorNickname", source = "image.owner.nickname")
+    @Mapping(target = "authorAvatarUuid", source = "image.owner.avatar")
+    @Mapping(target = "authorAvatarRenditions", source = "image.owner.avatarRenditions")
+    @Mapping(target = "likes", source = "likeCount")
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "liked", ignore = true)
     ImageResponse toResponse(Image image);
 
     List<ImageResponse> toResponse(List<Image> images);
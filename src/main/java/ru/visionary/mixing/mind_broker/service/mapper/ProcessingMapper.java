@@ -5,9 +5,15 @@ import org.mapstruct.Mapping;
 import ru.visionary.mixing.generated.model.ProcessingStatusResponse;
 import ru.visionary.mixing.mind_broker.entity.Processing;
 
+import java.util.UUID;
+
 @Mapper(componentModel = "spring")
 public interface ProcessingMapper {
-    @Mapping(target = "base64Image", source = "result")
+    @Mapping(target = "resultUrl", expression = "java(processing.result() == null ? null : ProcessingMapper.resultUrl(processing.id()))")
     @Mapping(target = "processingStatus", source = "status")
     ProcessingStatusResponse toResponse(Processing processing);
+
+    static String resultUrl(UUID id) {
+        return "/api/v1/processing/" + id + "/result";
+    }
 }
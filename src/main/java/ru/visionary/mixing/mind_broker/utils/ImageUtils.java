@@ -3,20 +3,37 @@ package ru.visionary.mixing.mind_broker.utils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
 import org.springframework.web.multipart.MultipartFile;
+import ru.visionary.mixing.mind_broker.config.properties.ImageValidationProperties;
+import ru.visionary.mixing.mind_broker.entity.ImageHeader;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 
 import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Set;
 
 @Slf4j
 public class ImageUtils {
     private static final Set<String> allowedContentType = Set.of("image/jpeg", "image/jpg", "image/png");
     private static final Set<String> allowedExtension = Set.of("jpeg", "jpg", "png");
+    private static final Set<String> allowedFormat = Set.of("jpeg", "png");
+    private static final int DEFAULT_BITS_PER_PIXEL = 32;
+    private static final byte[] PNG_SIGNATURE = new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
 
-    public static void checkImage(MultipartFile image) {
+    public static String detectContentType(byte[] image) {
+        if (image.length >= PNG_SIGNATURE.length && Arrays.equals(image, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length)) {
+            return "image/png";
+        }
+        return "image/jpeg";
+    }
+
+    public static void checkFile(MultipartFile image) {
         if (image == null || image.isEmpty()) {
             log.error("Image error: empty file");
             throw new ServiceException(ErrorCode.EMPTY_FILE);
@@ -27,18 +44,61 @@ public class ImageUtils {
             log.error("Image error: not supported file format");
             throw new ServiceException(ErrorCode.FILE_FORMAT_NOT_SUPPORTED);
         }
+    }
 
-        BufferedImage img;
-        try (InputStream is = image.getInputStream()) {
-            img = ImageIO.read(is);
-        } catch (Exception e) {
+    public static ImageReader openReader(ImageInputStream iis) {
+        Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+        if (readers == null || !readers.hasNext()) {
             log.error("Image error: not supported file format");
             throw new ServiceException(ErrorCode.FILE_FORMAT_NOT_SUPPORTED);
         }
 
-        if (img == null) {
+        ImageReader reader = readers.next();
+        reader.setInput(iis, true, true);
+        return reader;
+    }
+
+    public static ImageHeader readHeader(ImageReader reader) throws IOException {
+        Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+        int bitsPerPixel = types.hasNext() ? types.next().getColorModel().getPixelSize() : DEFAULT_BITS_PER_PIXEL;
+        return new ImageHeader(reader.getFormatName().toLowerCase(), reader.getWidth(0), reader.getHeight(0), bitsPerPixel);
+    }
+
+    public static void checkHeader(ImageHeader header, ImageValidationProperties limits) {
+        if (!allowedFormat.contains(header.format())) {
+            log.error("Image error: not supported image format {}", header.format());
+            throw new ServiceException(ErrorCode.FILE_FORMAT_NOT_SUPPORTED);
+        }
+        if (header.width() <= 0 || header.height() <= 0) {
+            log.error("Image error: invalid dimensions {}x{}", header.width(), header.height());
+            throw new ServiceException(ErrorCode.FILE_FORMAT_NOT_SUPPORTED);
+        }
+        if (header.width() > limits.maxWidth() || header.height() > limits.maxHeight() || header.pixels() > limits.maxPixels()) {
+            log.error("Image error: dimensions {}x{} exceed limits", header.width(), header.height());
+            throw new ServiceException(ErrorCode.IMAGE_DIMENSIONS_TOO_LARGE);
+        }
+    }
+
+    public static ImageHeader checkImage(MultipartFile image, ImageValidationProperties limits) {
+        checkFile(image);
+
+        ImageHeader header;
+        try (InputStream is = image.getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(is)) {
+            ImageReader reader = openReader(iis);
+            try {
+                header = readHeader(reader);
+            } finally {
+                reader.dispose();
+            }
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
             log.error("Image error: not supported file format");
             throw new ServiceException(ErrorCode.FILE_FORMAT_NOT_SUPPORTED);
         }
+
+        checkHeader(header, limits);
+        return header;
     }
 }
@@ -0,0 +1,33 @@
+package ru.visionary.mixing.mind_broker.utils;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+public class SqlArrayUtils {
+    public static SqlTypeValue integerArray(List<Integer> values) {
+        if (values == null) {
+            return null;
+        }
+        return new AbstractSqlTypeValue() {
+            @Override
+            protected Object createTypeValue(Connection connection, int sqlType, String typeName) throws SQLException {
+                return connection.createArrayOf("integer", values.toArray());
+            }
+        };
+    }
+
+    public static List<Integer> getIntegerList(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        if (array == null) {
+            return List.of();
+        }
+        return Arrays.stream((Integer[]) array.getArray()).toList();
+    }
+}
@@ -0,0 +1,4 @@
+ALTER TABLE processing
+    ADD COLUMN IF NOT EXISTS staged_image varchar;
+
+CREATE INDEX IF NOT EXISTS idx_processing_staged_image_is_not_null ON processing(status) WHERE staged_image IS NOT NULL;
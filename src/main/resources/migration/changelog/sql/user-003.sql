@@ -0,0 +1,4 @@
+-- Results are stored in MinIO now, column keeps the object key
+UPDATE processing
+SET result = NULL
+WHERE result IS NOT NULL;
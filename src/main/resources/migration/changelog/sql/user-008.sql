@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_processing_user_id_active ON processing(user_id)
+    WHERE status IN ('PENDING'::processing_status, 'PROCESSING'::processing_status);
@@ -0,0 +1,2 @@
+ALTER TABLE image ADD COLUMN IF NOT EXISTS renditions INTEGER[] NOT NULL DEFAULT '{}';
+ALTER TABLE users ADD COLUMN IF NOT EXISTS avatar_renditions INTEGER[] NOT NULL DEFAULT '{}';
@@ -0,0 +1,13 @@
+CREATE TYPE upload_target AS ENUM ('image', 'avatar');
+
+CREATE TABLE IF NOT EXISTS upload (
+    id uuid PRIMARY KEY,
+    owner bigint NOT NULL,
+    target upload_target NOT NULL,
+    protection protection,
+    created_at timestamp NOT NULL,
+    expires_at timestamp NOT NULL,
+    FOREIGN KEY (owner) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_upload_expires_at ON upload(expires_at);
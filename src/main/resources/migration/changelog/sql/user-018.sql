@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS object_deletion (
+    id bigserial PRIMARY KEY,
+    bucket varchar(63) NOT NULL,
+    key varchar(255) NOT NULL,
+    attempts int NOT NULL DEFAULT 0,
+    created_at timestamp NOT NULL DEFAULT current_timestamp,
+    next_attempt_at timestamp NOT NULL DEFAULT current_timestamp
+);
+
+CREATE INDEX idx_object_deletion_next_attempt_at ON object_deletion(next_attempt_at);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS image_content (
+    id uuid PRIMARY KEY,
+    hash varchar(64) NOT NULL UNIQUE,
+    ref_count int NOT NULL,
+    renditions integer[] NOT NULL DEFAULT '{}',
+    created_at timestamp NOT NULL DEFAULT current_timestamp
+);
+
+ALTER TABLE image ADD COLUMN content uuid REFERENCES image_content(id);
+
+CREATE INDEX idx_image_content ON image(content);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_image_public_created_at_id ON image(created_at DESC, id DESC) WHERE protection = 'public'::protection;
+CREATE INDEX IF NOT EXISTS idx_image_owner_public_created_at_id ON image(owner, created_at DESC, id DESC) WHERE protection = 'public'::protection;
+CREATE INDEX IF NOT EXISTS idx_likes_image ON likes(image);
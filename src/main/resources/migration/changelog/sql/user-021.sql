@@ -0,0 +1,12 @@
+ALTER TABLE image ADD COLUMN like_count bigint NOT NULL DEFAULT 0;
+
+UPDATE image i
+SET like_count = l.count
+FROM (
+    SELECT image, count(*) AS count
+    FROM likes
+    GROUP BY image
+) l
+WHERE i.id = l.image;
+
+CREATE INDEX IF NOT EXISTS idx_image_public_like_count_created_at_id ON image(like_count DESC, created_at DESC, id DESC) WHERE protection = 'public'::protection;
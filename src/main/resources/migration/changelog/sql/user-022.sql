@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS image_trend (
+    image uuid PRIMARY KEY,
+    score double precision NOT NULL,
+    scored_at timestamp NOT NULL,
+    FOREIGN KEY (image) REFERENCES image(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_image_trend_score ON image_trend(score DESC);
+
+CREATE TABLE IF NOT EXISTS trending_state (
+    id int PRIMARY KEY,
+    watermark timestamp NOT NULL
+);
+
+INSERT INTO trending_state (id, watermark) VALUES (1, current_timestamp - interval '7 days')
+ON CONFLICT (id) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_likes_like_at ON likes(like_at);
+CREATE INDEX IF NOT EXISTS idx_comment_created_at ON comment(created_at);
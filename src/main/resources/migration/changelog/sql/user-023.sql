@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS timeline (
+    user_id bigint NOT NULL,
+    image uuid NOT NULL,
+    created_at timestamp NOT NULL,
+    PRIMARY KEY (user_id, image),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (image) REFERENCES image(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_timeline_user_created_at_image ON timeline(user_id, created_at DESC, image DESC);
+CREATE INDEX IF NOT EXISTS idx_follow_follow ON follow(follow);
+
+ALTER TABLE image ADD COLUMN IF NOT EXISTS fanned_out boolean NOT NULL DEFAULT true;
+CREATE INDEX IF NOT EXISTS idx_image_owner_created_at_id_read ON image(owner, created_at DESC, id DESC) WHERE NOT fanned_out;
+
+INSERT INTO timeline (user_id, image, created_at)
+SELECT r.follower, r.id, r.created_at
+FROM (
+    SELECT f.follower, i.id, i.created_at,
+           row_number() OVER (PARTITION BY f.follower ORDER BY i.created_at DESC, i.id DESC) AS rn
+    FROM follow f
+        JOIN image i ON f.follow = i.owner
+    WHERE i.protection = 'public'::protection
+) r
+WHERE r.rn <= 1000;
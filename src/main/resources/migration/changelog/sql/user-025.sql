@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_comment_image ON comment(image);
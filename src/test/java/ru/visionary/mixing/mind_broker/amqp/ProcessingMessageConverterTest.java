@@ -0,0 +1,71 @@
+package ru.visionary.mixing.mind_broker.amqp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import ru.visionary.mixing.mind_broker.config.properties.ProcessingTransport;
+import ru.visionary.mixing.mind_broker.entity.ProcessingMessage;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessingMessageConverterTest {
+    private final UUID uuid = UUID.randomUUID();
+    private final byte[] image = new byte[]{1, 2, 3, 4};
+
+    @Test
+    void toMessage_BinaryTransport_WritesRawBodyAndHeaders() {
+        ProcessingMessageConverter converter = new ProcessingMessageConverter(new Jackson2JsonMessageConverter(), ProcessingTransport.BINARY);
+
+        Message message = converter.toMessage(new ProcessingMessage(uuid, image, "style", BigDecimal.valueOf(0.5), null), new MessageProperties());
+
+        assertSame(image, message.getBody());
+        assertEquals(MessageProperties.CONTENT_TYPE_BYTES, message.getMessageProperties().getContentType());
+        assertEquals(uuid.toString(), message.getMessageProperties().getHeader(ProcessingMessageConverter.UUID_HEADER));
+        assertEquals("style", message.getMessageProperties().getHeader(ProcessingMessageConverter.STYLE_HEADER));
+        assertEquals("0.5", message.getMessageProperties().getHeader(ProcessingMessageConverter.STRENGTH_HEADER));
+    }
+
+    @Test
+    void fromMessage_BinaryTransport_ReadsMessageWithoutStrength() {
+        ProcessingMessageConverter converter = new ProcessingMessageConverter(new Jackson2JsonMessageConverter(), ProcessingTransport.BINARY);
+        Message message = converter.toMessage(new ProcessingMessage(uuid, image, "style", null, null), new MessageProperties());
+
+        ProcessingMessage result = (ProcessingMessage) converter.fromMessage(message);
+
+        assertEquals(uuid, result.uuid());
+        assertArrayEquals(image, result.image());
+        assertEquals("style", result.style());
+        assertNull(result.strength());
+    }
+
+    @Test
+    void fromMessage_BinaryTransport_ReadsStagedImageKey() {
+        ProcessingMessageConverter converter = new ProcessingMessageConverter(new Jackson2JsonMessageConverter(), ProcessingTransport.BINARY);
+        Message message = converter.toMessage(new ProcessingMessage(uuid, null, "style", null, "staged-key"), new MessageProperties());
+
+        ProcessingMessage result = (ProcessingMessage) converter.fromMessage(message);
+
+        assertEquals(0, message.getBody().length);
+        assertNull(result.image());
+        assertEquals("staged-key", result.imageKey());
+    }
+
+    @Test
+    void toMessage_JsonTransport_KeepsBase64Format() {
+        ProcessingMessageConverter converter = new ProcessingMessageConverter(new Jackson2JsonMessageConverter(), ProcessingTransport.JSON);
+
+        Message message = converter.toMessage(new ProcessingMessage(uuid, image, "style", BigDecimal.ONE, null), new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+        assertTrue(new String(message.getBody(), StandardCharsets.UTF_8).contains("\"base64Image\":\"AQIDBA==\""));
+
+        ProcessingMessage result = (ProcessingMessage) converter.fromMessage(message);
+        assertEquals(uuid, result.uuid());
+        assertArrayEquals(image, result.image());
+    }
+}
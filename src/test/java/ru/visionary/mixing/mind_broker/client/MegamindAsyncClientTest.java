@@ -0,0 +1,62 @@
+package ru.visionary.mixing.mind_broker.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MegamindAsyncClientTest {
+    private static final ImageProcessingRequest REQUEST = new ImageProcessingRequest(new byte[]{1}, "style", null, "key");
+
+    @Mock
+    private HttpClient httpClient;
+
+    @Test
+    void process_SendThrows_ReleasesPermit() {
+        MegamindAsyncClient client = client();
+        when(httpClient.sendAsync(any(), any()))
+                .thenThrow(new IllegalArgumentException("bad request"))
+                .thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<ImageProcessingResponse> failed = client.process(REQUEST, Duration.ofMillis(50));
+        CompletableFuture<ImageProcessingResponse> pending = client.process(REQUEST, Duration.ofMillis(50));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, failed::get);
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+        assertFalse(pending.isDone());
+    }
+
+    @Test
+    void process_NoFreeSlot_FailsAfterTimeout() {
+        MegamindAsyncClient client = client();
+        when(httpClient.sendAsync(any(), any())).thenReturn(new CompletableFuture<>());
+        client.process(REQUEST, Duration.ofMillis(50));
+
+        CompletableFuture<ImageProcessingResponse> rejected = client.process(REQUEST, Duration.ofMillis(50));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+        ServiceException cause = assertInstanceOf(ServiceException.class, ex.getCause());
+        assertEquals(ErrorCode.MEGAMIND_ERROR, cause.getErrorCode());
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    private MegamindAsyncClient client() {
+        return new MegamindAsyncClient(httpClient, new ObjectMapper(), URI.create("http://megamind/api/v1/process"), 1);
+    }
+}
@@ -26,7 +26,7 @@ class FeedControllerTest {
 
     @Test
     void getFeed_ValidRequest_Returns200() throws Exception {
-        when(feedService.getFeed("NEW", 10, 0))
+        when(feedService.getFeed("NEW", 10, 0, null))
                 .thenReturn(new GetImagesResponse());
 
         mockMvc.perform(get("/api/v1/feed")
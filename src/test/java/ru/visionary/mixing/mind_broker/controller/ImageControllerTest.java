@@ -5,22 +5,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.visionary.mixing.generated.model.GetImagesResponse;
 import ru.visionary.mixing.generated.model.ImageResponse;
 import ru.visionary.mixing.generated.model.SaveImageResponse;
+import ru.visionary.mixing.mind_broker.entity.Download;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 import ru.visionary.mixing.mind_broker.service.ImageService;
+import ru.visionary.mixing.mind_broker.service.UploadService;
 
+import java.io.ByteArrayInputStream;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,6 +38,8 @@ class ImageControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ImageService imageService;
+    @MockBean
+    private UploadService uploadService;
 
     @Test
     void saveImage_ValidRequest_ReturnsOk() throws Exception {
@@ -138,4 +148,48 @@ class ImageControllerTest {
                         .param("page", "0"))
                 .andExpect(status().isGone());
     }
-}
\ No newline at end of file
+
+    @Test
+    void downloadImage_Range_ReturnsPartialContent() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        byte[] content = "part".getBytes();
+        StoredObjectInfo object = new StoredObjectInfo("images", uuid.toString(), 100, "image/png", "abc");
+        when(imageService.downloadImage(uuid, null, "bytes=10-13", null))
+                .thenReturn(Download.partial(object, CacheControl.noCache(), 10, 4, new ByteArrayInputStream(content)));
+
+        mockMvc.perform(get("/api/v1/image/{uuid}/file", uuid).header(HttpHeaders.RANGE, "bytes=10-13"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-13/100"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void downloadImage_NotModified_ReturnsEmptyBody() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        StoredObjectInfo object = new StoredObjectInfo("images", uuid.toString(), 100, "image/png", "abc");
+        when(imageService.downloadImage(uuid, 128, null, "\"abc\""))
+                .thenReturn(Download.notModified(object, CacheControl.noCache()));
+
+        mockMvc.perform(get("/api/v1/image/{uuid}/file", uuid)
+                        .param("size", "128")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void downloadImage_RangeNotSatisfiable_Returns416() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        StoredObjectInfo object = new StoredObjectInfo("images", uuid.toString(), 100, "image/png", "abc");
+        when(imageService.downloadImage(uuid, null, "bytes=200-", null))
+                .thenReturn(Download.rangeNotSatisfiable(object));
+
+        mockMvc.perform(get("/api/v1/image/{uuid}/file", uuid).header(HttpHeaders.RANGE, "bytes=200-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+    }
+}
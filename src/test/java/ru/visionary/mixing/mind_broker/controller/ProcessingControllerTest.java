@@ -11,11 +11,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.visionary.mixing.generated.model.ProcessingImageResponse;
 import ru.visionary.mixing.generated.model.ProcessingStatusResponse;
 import ru.visionary.mixing.generated.model.StylesResponse;
+import ru.visionary.mixing.mind_broker.entity.StoredObject;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 import ru.visionary.mixing.mind_broker.service.ProcessingService;
 import ru.visionary.mixing.mind_broker.service.StyleService;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -50,6 +52,21 @@ class ProcessingControllerTest {
                 .andExpect(jsonPath("$.uuid").exists());
     }
 
+    @Test
+    void processImage_TooManyActiveProcessing_ReturnsTooManyRequests() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "image", "test.jpg", "image/jpeg", "content".getBytes());
+        when(processingService.processImage(any(), any(), any()))
+                .thenThrow(new ServiceException(ErrorCode.TOO_MANY_PROCESSING));
+
+        mockMvc.perform(multipart("/api/v1/processing")
+                        .file(file)
+                        .param("style", "test")
+                        .param("strength", "0.5"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.TOO_MANY_PROCESSING.getErrorCode()));
+    }
+
     @Test
     void getStyles_ShouldReturnStyleList() throws Exception {
         when(styleService.getStyles()).thenReturn(new StylesResponse(List.of()));
@@ -108,4 +125,28 @@ class ProcessingControllerTest {
                 .andExpect(jsonPath("$.errorCode").value(ErrorCode.ACCESS_FORBIDDEN.getErrorCode()))
                 .andExpect(jsonPath("$.message").value(ErrorCode.ACCESS_FORBIDDEN.getMessage()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getResult_ValidRequest_StreamsResult() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        byte[] content = "result".getBytes();
+        when(processingService.getResult(uuid))
+                .thenReturn(new StoredObject(new ByteArrayInputStream(content), content.length, "image/png"));
+
+        mockMvc.perform(get("/api/v1/processing/{uuid}/result", uuid))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void getResult_ResultNotFound_ReturnsNotFound() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        when(processingService.getResult(uuid))
+                .thenThrow(new ServiceException(ErrorCode.PROCESSING_RESULT_NOT_FOUND));
+
+        mockMvc.perform(get("/api/v1/processing/{uuid}/result", uuid))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.PROCESSING_RESULT_NOT_FOUND.getErrorCode()));
+    }
+}
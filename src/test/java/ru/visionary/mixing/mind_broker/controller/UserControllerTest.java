@@ -14,6 +14,7 @@ import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 import ru.visionary.mixing.mind_broker.service.FollowService;
 import ru.visionary.mixing.mind_broker.service.ImageService;
+import ru.visionary.mixing.mind_broker.service.UploadService;
 import ru.visionary.mixing.mind_broker.service.UserService;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +35,8 @@ class UserControllerTest {
     private UserService userService;
     @MockBean
     private FollowService followService;
+    @MockBean
+    private UploadService uploadService;
 
     @Test
     void getUser_ValidRequest_ReturnsUser() throws Exception {
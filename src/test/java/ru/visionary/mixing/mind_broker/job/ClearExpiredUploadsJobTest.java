@@ -0,0 +1,53 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.config.properties.UploadProperties;
+import ru.visionary.mixing.mind_broker.repository.UploadRepository;
+import ru.visionary.mixing.mind_broker.service.ObjectDeletionService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClearExpiredUploadsJobTest {
+    @Mock
+    private UploadRepository uploadRepository;
+    @Mock
+    private UploadProperties uploadProperties;
+    @Mock
+    private ObjectDeletionService objectDeletionService;
+
+    @InjectMocks
+    private ClearExpiredUploadsJob clearExpiredUploadsJob;
+
+    @Test
+    void clearExpiredUploads_ShouldScheduleObjectsForDeletion() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(uploadProperties.clearBatchSize()).thenReturn(100);
+        when(uploadRepository.deleteExpired(any(LocalDateTime.class), eq(100))).thenReturn(List.of(first, second));
+
+        clearExpiredUploadsJob.clearExpiredUploads();
+
+        verify(objectDeletionService).deleteUpload(first);
+        verify(objectDeletionService).deleteUpload(second);
+    }
+
+    @Test
+    void clearExpiredUploads_NothingExpired_ShouldNotTouchStorage() {
+        when(uploadRepository.deleteExpired(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+
+        clearExpiredUploadsJob.clearExpiredUploads();
+
+        verifyNoInteractions(objectDeletionService);
+    }
+}
@@ -7,8 +7,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.visionary.mixing.mind_broker.config.properties.ProcessingProperties;
 import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
+import ru.visionary.mixing.mind_broker.service.ObjectDeletionService;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -22,6 +24,9 @@ class ClearOldResultJobTest {
     @Mock
     private ProcessingProperties processingProperties;
 
+    @Mock
+    private ObjectDeletionService objectDeletionService;
+
     @InjectMocks
     private ClearOldResultJob clearOldResultJob;
 
@@ -58,11 +63,22 @@ class ClearOldResultJobTest {
     @Test
     void clearOldResults_NoDataToClear_ShouldCompleteNormally() {
         when(processingProperties.resultTtlMinutes()).thenReturn(60);
-        doNothing().when(processingRepository).clearResultWhereLoadedBefore(any());
+        when(processingRepository.clearResultWhereLoadedBefore(any())).thenReturn(List.of());
 
         clearOldResultJob.clearOldResults();
 
         verify(processingRepository).clearResultWhereLoadedBefore(any(LocalDateTime.class));
+        verifyNoInteractions(objectDeletionService);
+    }
+
+    @Test
+    void clearOldResults_ShouldScheduleClearedResultsForDeletion() {
+        when(processingProperties.resultTtlMinutes()).thenReturn(15);
+        when(processingRepository.clearResultWhereLoadedBefore(any())).thenReturn(List.of("first", "second"));
+
+        clearOldResultJob.clearOldResults();
+
+        verify(objectDeletionService).deleteResults(List.of("first", "second"));
     }
 
     @Test
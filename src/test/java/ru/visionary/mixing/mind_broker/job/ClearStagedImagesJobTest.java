@@ -0,0 +1,58 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
+import ru.visionary.mixing.mind_broker.service.MinioService;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClearStagedImagesJobTest {
+    @Mock
+    private ProcessingRepository processingRepository;
+    @Mock
+    private MinioService minioService;
+
+    @InjectMocks
+    private ClearStagedImagesJob clearStagedImagesJob;
+
+    @Test
+    void clearStagedImages_ShouldDeleteObjectsAndClearRows() {
+        when(processingRepository.findFinishedStagedImages(anyInt())).thenReturn(List.of("first", "second"));
+
+        clearStagedImagesJob.clearStagedImages();
+
+        verify(minioService).deleteStagedImage("first");
+        verify(minioService).deleteStagedImage("second");
+        verify(processingRepository).clearStagedImages(List.of("first", "second"));
+    }
+
+    @Test
+    void clearStagedImages_DeletionFailure_ShouldKeepFailedRows() {
+        when(processingRepository.findFinishedStagedImages(anyInt())).thenReturn(List.of("first", "second"));
+        doThrow(new ServiceException(ErrorCode.FAILED_DELETE_MINIO)).when(minioService).deleteStagedImage("first");
+
+        clearStagedImagesJob.clearStagedImages();
+
+        verify(processingRepository).clearStagedImages(List.of("second"));
+    }
+
+    @Test
+    void clearStagedImages_NothingStaged_ShouldSkip() {
+        when(processingRepository.findFinishedStagedImages(anyInt())).thenReturn(List.of());
+
+        clearStagedImagesJob.clearStagedImages();
+
+        verifyNoInteractions(minioService);
+        verify(processingRepository, never()).clearStagedImages(anyList());
+    }
+}
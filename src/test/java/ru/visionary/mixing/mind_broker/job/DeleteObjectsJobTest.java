@@ -0,0 +1,65 @@
+package ru.visionary.mixing.mind_broker.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.config.properties.ObjectDeletionProperties;
+import ru.visionary.mixing.mind_broker.entity.ObjectDeletion;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.repository.ObjectDeletionRepository;
+import ru.visionary.mixing.mind_broker.service.MinioService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeleteObjectsJobTest {
+    @Mock
+    private ObjectDeletionRepository objectDeletionRepository;
+    @Mock
+    private ObjectDeletionProperties properties;
+    @Mock
+    private MinioService minioService;
+
+    @InjectMocks
+    private DeleteObjectsJob deleteObjectsJob;
+
+    @Test
+    void deleteObjects_ShouldBatchPerBucketAndRescheduleFailures() {
+        when(properties.batchSize()).thenReturn(100);
+        when(properties.initialBackoff()).thenReturn(Duration.ofSeconds(30));
+        when(properties.maxBackoff()).thenReturn(Duration.ofHours(1));
+        when(objectDeletionRepository.lockDue(any(LocalDateTime.class), eq(100))).thenReturn(List.of(
+                new ObjectDeletion(1L, "images", "a", 0),
+                new ObjectDeletion(2L, "images", "a/128", 0),
+                new ObjectDeletion(3L, "avatars", "b", 2)
+        ));
+        when(minioService.removeObjects("images", List.of("a", "a/128"))).thenReturn(List.of("a/128"));
+        when(minioService.removeObjects("avatars", List.of("b")))
+                .thenThrow(new ServiceException(ErrorCode.FAILED_DELETE_MINIO));
+
+        deleteObjectsJob.deleteObjects();
+
+        verify(objectDeletionRepository).deleteByIds(List.of(1L));
+        verify(objectDeletionRepository).reschedule(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))),
+                any(LocalDateTime.class), eq(Duration.ofSeconds(30)), eq(Duration.ofHours(1)));
+    }
+
+    @Test
+    void deleteObjects_NothingDue_ShouldNotTouchStorage() {
+        when(objectDeletionRepository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+
+        deleteObjectsJob.deleteObjects();
+
+        verifyNoInteractions(minioService);
+        verify(objectDeletionRepository, never()).deleteByIds(any());
+    }
+}
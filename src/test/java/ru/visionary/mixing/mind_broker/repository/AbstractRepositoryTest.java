@@ -61,12 +61,14 @@ public abstract class AbstractRepositoryTest {
 
     @AfterEach
     void cleanupDatabase() {
+        jdbcTemplate.update("DELETE FROM object_deletion", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM follow", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM comment", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM likes", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM processing", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM style", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM image", new MapSqlParameterSource());
+        jdbcTemplate.update("DELETE FROM image_content", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM refresh_token", new MapSqlParameterSource());
         jdbcTemplate.update("DELETE FROM users", new MapSqlParameterSource());
     }
@@ -8,6 +8,7 @@ import ru.visionary.mixing.mind_broker.entity.Protection;
 import ru.visionary.mixing.mind_broker.entity.User;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -38,6 +39,7 @@ class CommentRepositoryTest extends AbstractRepositoryTest {
         List<Comment> comments = commentRepository.findByImage(imageId, 10, 0);
         assertEquals(1, comments.size());
         assertEquals("Test comment", comments.get(0).comment());
+        assertEquals(Map.of(imageId, 1L), commentRepository.countByImages(List.of(imageId, UUID.randomUUID())));
     }
 
     private User createTestUser() {
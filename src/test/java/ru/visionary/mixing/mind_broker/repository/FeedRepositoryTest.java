@@ -3,6 +3,8 @@ package ru.visionary.mixing.mind_broker.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.FeedSortType;
 import ru.visionary.mixing.mind_broker.entity.Follow;
 import ru.visionary.mixing.mind_broker.entity.Image;
 import ru.visionary.mixing.mind_broker.entity.Protection;
@@ -11,6 +13,7 @@ import ru.visionary.mixing.mind_broker.entity.User;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -32,6 +35,9 @@ class FeedRepositoryTest extends AbstractRepositoryTest {
     @Autowired
     private FollowRepository followRepository;
 
+    @Autowired
+    private LikeCounter likeCounter;
+
     @Test
     void getFeedByNew_ReturnsPublicImages() {
         Long userId = userRepository.save(createUser());
@@ -55,6 +61,7 @@ class FeedRepositoryTest extends AbstractRepositoryTest {
 
         likeRepository.save(user1, image2);
         likeRepository.save(user2, image2);
+        likeCounter.flush();
 
         List<Image> result = feedRepository.getFeedByPopular(null, 10, 0);
         assertEquals(2, result.size());
@@ -74,6 +81,40 @@ class FeedRepositoryTest extends AbstractRepositoryTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void getFeedByNew_WithCursor_ReturnsNextPageWithoutGaps() {
+        Long userId = userRepository.save(createUser());
+        for (int i = 0; i < 5; i++) {
+            imageRepository.save(createImage(userId, Protection.PUBLIC));
+        }
+
+        List<Image> firstPage = feedRepository.getFeedByNew(null, FeedCursor.first(FeedSortType.NEW), 3);
+        List<Image> secondPage = feedRepository.getFeedByNew(null, FeedCursor.after(FeedSortType.NEW, firstPage.getLast()), 3);
+
+        assertEquals(3, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertEquals(
+                feedRepository.getFeedByNew(null, FeedCursor.first(FeedSortType.NEW), 5).stream().map(Image::id).toList(),
+                Stream.concat(firstPage.stream(), secondPage.stream()).map(Image::id).toList()
+        );
+    }
+
+    @Test
+    void getFeedByPopular_WithCursor_ContinuesAfterLikeCount() {
+        Long userId = userRepository.save(createUser("test"));
+        UUID liked = imageRepository.save(createImage(userId, Protection.PUBLIC));
+        UUID notLiked = imageRepository.save(createImage(userId, Protection.PUBLIC));
+        likeRepository.save(userRepository.save(createUser("user1")), liked);
+        likeCounter.flush();
+
+        List<Image> firstPage = feedRepository.getFeedByPopular(null, FeedCursor.first(FeedSortType.POPULAR), 1);
+        List<Image> secondPage = feedRepository.getFeedByPopular(null, FeedCursor.after(FeedSortType.POPULAR, firstPage.getLast()), 1);
+
+        assertEquals(liked, firstPage.getFirst().id());
+        assertEquals(1L, firstPage.getFirst().likeCount());
+        assertEquals(notLiked, secondPage.getFirst().id());
+    }
+
     private User createUser() {
         return User.builder()
                 .nickname("testuser")
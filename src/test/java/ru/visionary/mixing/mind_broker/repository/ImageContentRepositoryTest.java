@@ -0,0 +1,56 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class ImageContentRepositoryTest extends AbstractRepositoryTest {
+    @Autowired
+    private ImageContentRepository imageContentRepository;
+
+    @Test
+    void insertOrAcquire_SameHash_ReturnsExistingContent() {
+        UUID first = UUID.randomUUID();
+        imageContentRepository.insertOrAcquire(content(first));
+
+        ImageContent second = imageContentRepository.insertOrAcquire(content(UUID.randomUUID()));
+
+        assertEquals(first, second.id());
+        assertEquals(2, second.refCount());
+        assertEquals(List.of(512, 128), second.renditions());
+    }
+
+    @Test
+    void acquireByHash_UnknownHash_ReturnsNull() {
+        assertNull(imageContentRepository.acquireByHash("unknown"));
+    }
+
+    @Test
+    void release_LastReference_AllowsDeletion() {
+        UUID id = UUID.randomUUID();
+        imageContentRepository.insertOrAcquire(content(id));
+        imageContentRepository.acquireByHash("hash");
+
+        assertEquals(1, imageContentRepository.release(id).refCount());
+        assertEquals(0, imageContentRepository.deleteUnreferenced(id));
+        assertEquals(0, imageContentRepository.release(id).refCount());
+        assertEquals(1, imageContentRepository.deleteUnreferenced(id));
+        assertNull(imageContentRepository.acquireByHash("hash"));
+    }
+
+    private ImageContent content(UUID id) {
+        return ImageContent.builder()
+                .id(id)
+                .hash("hash")
+                .renditions(List.of(512, 128))
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeCounterTest {
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LikeCounter likeCounter;
+
+    @Test
+    void flush_ShouldWriteOneNetDeltaPerImage() {
+        UUID liked = UUID.randomUUID();
+        UUID unchanged = UUID.randomUUID();
+        likeCounter.add(liked, 1);
+        likeCounter.add(liked, 1);
+        likeCounter.add(unchanged, 1);
+        likeCounter.add(unchanged, -1);
+
+        assertEquals(1, likeCounter.flush());
+
+        ArgumentCaptor<MapSqlParameterSource[]> captor = ArgumentCaptor.forClass(MapSqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertEquals(1, captor.getValue().length);
+        assertEquals(liked, captor.getValue()[0].getValue("id"));
+        assertEquals(2L, captor.getValue()[0].getValue("delta"));
+        assertEquals(0, likeCounter.flush());
+    }
+
+    @Test
+    void flush_Failure_ShouldKeepDeltasForNextFlush() {
+        UUID imageId = UUID.randomUUID();
+        likeCounter.add(imageId, 1);
+        doThrow(new DataAccessResourceFailureException("down"))
+                .doReturn(new int[]{1})
+                .when(jdbcTemplate).batchUpdate(anyString(), any(MapSqlParameterSource[].class));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> likeCounter.flush());
+
+        assertEquals(1, likeCounter.flush());
+    }
+}
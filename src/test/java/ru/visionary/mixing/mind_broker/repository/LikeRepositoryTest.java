@@ -7,9 +7,12 @@ import ru.visionary.mixing.mind_broker.entity.Protection;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class LikeRepositoryTest extends AbstractRepositoryTest {
@@ -22,6 +25,9 @@ class LikeRepositoryTest extends AbstractRepositoryTest {
     @Autowired
     private ImageRepository imageRepository;
 
+    @Autowired
+    private LikeCounter likeCounter;
+
     @Test
     void save_ValidLike_ShouldPersist() {
         Long userId = userRepository.save(createTestUser());
@@ -48,6 +54,31 @@ class LikeRepositoryTest extends AbstractRepositoryTest {
         assertDoesNotThrow(() -> likeRepository.deleteByUserAndImage(userId, imageId));
     }
 
+    @Test
+    void saveAndDelete_ShouldMaintainLikeCountAfterFlush() {
+        Long userId = userRepository.save(createTestUser());
+        UUID imageId = imageRepository.save(createTestImage(userId));
+
+        likeRepository.save(userId, imageId);
+        likeCounter.flush();
+        assertEquals(1L, imageRepository.findById(imageId).likeCount());
+
+        likeRepository.deleteByUserAndImage(userId, imageId);
+        likeCounter.flush();
+        assertEquals(0L, imageRepository.findById(imageId).likeCount());
+    }
+
+    @Test
+    void findLikedImages_ShouldAnswerForWholePage() {
+        Long userId = userRepository.save(createTestUser());
+        UUID liked = imageRepository.save(createTestImage(userId));
+        UUID notLiked = imageRepository.save(createTestImage(userId));
+
+        likeRepository.save(userId, liked);
+
+        assertEquals(Set.of(liked), likeRepository.findLikedImages(userId, List.of(liked, notLiked)));
+    }
+
     private User createTestUser() {
         return User.builder()
                 .nickname("testuser")
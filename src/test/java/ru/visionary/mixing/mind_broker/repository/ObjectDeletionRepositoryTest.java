@@ -0,0 +1,53 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.visionary.mixing.mind_broker.entity.ObjectDeletion;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ObjectDeletionRepositoryTest extends AbstractRepositoryTest {
+    @Autowired
+    private ObjectDeletionRepository objectDeletionRepository;
+
+    @Test
+    void saveAllAndLockDue_ShouldReturnScheduledKeys() {
+        objectDeletionRepository.saveAll("images", List.of("a", "a/128"));
+
+        List<ObjectDeletion> due = objectDeletionRepository.lockDue(LocalDateTime.now().plusSeconds(1), 10);
+
+        assertEquals(List.of("a", "a/128"), due.stream().map(ObjectDeletion::key).sorted().toList());
+        assertTrue(due.stream().allMatch(deletion -> deletion.bucket().equals("images")));
+    }
+
+    @Test
+    void reschedule_ShouldPostponeWithBackoff() {
+        objectDeletionRepository.saveAll("images", List.of("a"));
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        ObjectDeletion deletion = objectDeletionRepository.lockDue(now, 10).getFirst();
+
+        objectDeletionRepository.reschedule(List.of(deletion.id()), now, Duration.ofSeconds(30), Duration.ofHours(1));
+
+        assertTrue(objectDeletionRepository.lockDue(now.plusSeconds(29), 10).isEmpty());
+        ObjectDeletion retried = objectDeletionRepository.lockDue(now.plusSeconds(31), 10).getFirst();
+        assertEquals(1, retried.attempts());
+    }
+
+    @Test
+    void deleteByIds_ShouldRemoveRows() {
+        objectDeletionRepository.saveAll("images", List.of("a"));
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        ObjectDeletion deletion = objectDeletionRepository.lockDue(now, 10).getFirst();
+
+        objectDeletionRepository.deleteByIds(List.of(deletion.id()));
+
+        assertTrue(objectDeletionRepository.lockDue(now, 10).isEmpty());
+    }
+}
@@ -131,6 +131,53 @@ class ProcessingRepositoryTest extends AbstractRepositoryTest {
         assertEquals(ProcessingStatus.CANCELED, updated.status());
     }
 
+    @Test
+    void findFinishedStagedImages_ShouldReturnOnlyTerminalProcessing() {
+        UUID stagedId = UUID.randomUUID();
+        processingRepository.save(Processing.builder()
+                .id(stagedId)
+                .user(User.builder().id(userId).build())
+                .style(testStyle)
+                .stagedImage(stagedId.toString())
+                .build());
+
+        assertTrue(processingRepository.findFinishedStagedImages(10).isEmpty());
+
+        processingRepository.updateStatus(stagedId, ProcessingStatus.COMPLETED);
+        assertEquals(List.of(stagedId.toString()), processingRepository.findFinishedStagedImages(10));
+
+        processingRepository.clearStagedImages(List.of(stagedId.toString()));
+        assertTrue(processingRepository.findFinishedStagedImages(10).isEmpty());
+        assertNull(processingRepository.findById(stagedId).stagedImage());
+    }
+
+    @Test
+    void countActiveByUser_ShouldCountPendingAndProcessingOnly() {
+        assertEquals(1, processingRepository.countActiveByUser(userId));
+
+        processingRepository.updateStatus(processingId, ProcessingStatus.PROCESSING);
+        assertEquals(1, processingRepository.countActiveByUser(userId));
+
+        processingRepository.updateStatus(processingId, ProcessingStatus.COMPLETED);
+        assertEquals(0, processingRepository.countActiveByUser(userId));
+    }
+
+    @Test
+    void completeWithResult_ShouldStoreResultKey() {
+        processingRepository.completeWithResult(processingId, processingId.toString());
+
+        Processing updated = processingRepository.findById(processingId);
+        assertEquals(ProcessingStatus.COMPLETED, updated.status());
+        assertEquals(processingId.toString(), updated.result());
+
+        assertTrue(processingRepository.clearResultWhereLoadedBefore(LocalDateTime.now().minusMinutes(5)).isEmpty());
+        assertEquals(
+                List.of(processingId.toString()),
+                processingRepository.clearResultWhereLoadedBefore(LocalDateTime.now().plusMinutes(5))
+        );
+        assertNull(processingRepository.findById(processingId).result());
+    }
+
     @Test
     void cancelLongProcessing_ShouldNotAffectRecentProcessing() {
         processingRepository.updateStatus(processingId, ProcessingStatus.PROCESSING);
@@ -0,0 +1,135 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.FeedSortType;
+import ru.visionary.mixing.mind_broker.entity.Follow;
+import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.User;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TimelineRepositoryTest extends AbstractRepositoryTest {
+    private static final FeedCursor FIRST = FeedCursor.first(FeedSortType.FOLLOW);
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Test
+    void fanOut_ShouldDeliverPublicImageToFollowers() {
+        Long author = userRepository.save(user("author"));
+        Long follower = userRepository.save(user("follower"));
+        follow(follower, author);
+        UUID shared = imageRepository.save(image(author, Protection.PUBLIC));
+        UUID hidden = imageRepository.save(image(author, Protection.PRIVATE));
+
+        assertEquals(1, timelineRepository.fanOut(shared));
+        assertEquals(0, timelineRepository.fanOut(hidden));
+
+        assertEquals(List.of(shared), ids(feedRepository.getFeedByTimeline(follower, FIRST, 10)));
+
+        timelineRepository.removeImage(shared);
+        assertTrue(feedRepository.getFeedByTimeline(follower, FIRST, 10).isEmpty());
+    }
+
+    @Test
+    void getFeedByTimeline_ShouldMergeOnReadImagesWithinTimeline() {
+        Long author = userRepository.save(user("author"));
+        Long popular = userRepository.save(user("popular"));
+        Long follower = userRepository.save(user("follower"));
+        follow(follower, author);
+        follow(follower, popular);
+        UUID beyond = imageRepository.save(image(popular, Protection.PUBLIC));
+        UUID pushed = imageRepository.save(image(author, Protection.PUBLIC));
+        UUID onRead = imageRepository.save(image(popular, Protection.PUBLIC));
+        timelineRepository.markFannedOut(beyond, false);
+        timelineRepository.markFannedOut(onRead, false);
+
+        assertTrue(feedRepository.getFeedByTimeline(follower, FIRST, 10).isEmpty());
+
+        timelineRepository.fanOut(pushed);
+        assertEquals(List.of(onRead, pushed), ids(feedRepository.getFeedByTimeline(follower, FIRST, 10)));
+        assertEquals(0, timelineRepository.addAuthor(follower, popular, 10));
+    }
+
+    @Test
+    void addAuthorAndTrim_ShouldKeepNewestImages() {
+        Long author = userRepository.save(user("author"));
+        Long follower = userRepository.save(user("follower"));
+        follow(follower, author);
+        for (int i = 0; i < 3; i++) {
+            imageRepository.save(image(author, Protection.PUBLIC));
+        }
+
+        assertEquals(3, timelineRepository.addAuthor(follower, author, 5));
+        List<UUID> newest = ids(feedRepository.getFeedByTimeline(follower, FIRST, 2));
+
+        assertEquals(1, timelineRepository.trim(follower, 2));
+        assertEquals(newest, ids(feedRepository.getFeedByTimeline(follower, FIRST, 10)));
+
+        timelineRepository.removeAuthor(follower, author);
+        assertTrue(feedRepository.getFeedByTimeline(follower, FIRST, 10).isEmpty());
+    }
+
+    @Test
+    void trimFollowers_ShouldKeepNewestImagesOfEachFollower() {
+        Long author = userRepository.save(user("author"));
+        Long first = userRepository.save(user("first"));
+        Long second = userRepository.save(user("second"));
+        follow(first, author);
+        follow(second, author);
+        for (int i = 0; i < 3; i++) {
+            timelineRepository.fanOut(imageRepository.save(image(author, Protection.PUBLIC)));
+        }
+        List<UUID> newest = ids(feedRepository.getFeedByTimeline(first, FIRST, 2));
+
+        assertEquals(2, timelineRepository.trimFollowers(author, 2));
+        assertEquals(newest, ids(feedRepository.getFeedByTimeline(first, FIRST, 10)));
+        assertEquals(newest, ids(feedRepository.getFeedByTimeline(second, FIRST, 10)));
+    }
+
+    private void follow(Long follower, Long author) {
+        followRepository.save(Follow.builder()
+                .follower(User.builder().id(follower).build())
+                .follow(User.builder().id(author).build())
+                .build());
+    }
+
+    private List<UUID> ids(List<Image> images) {
+        return images.stream().map(Image::id).toList();
+    }
+
+    private User user(String prefix) {
+        return User.builder()
+                .nickname(prefix + "-user")
+                .email(prefix + "@example.com")
+                .password("password")
+                .build();
+    }
+
+    private Image image(Long ownerId, Protection protection) {
+        return Image.builder()
+                .owner(User.builder().id(ownerId).build())
+                .protection(protection)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TrendingRepositoryTest extends AbstractRepositoryTest {
+    private static final double DECAY_RATE = Math.log(2) / 3600;
+
+    @Autowired
+    private TrendingRepository trendingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Test
+    void addEvents_ShouldScorePublicImagesAndAccumulate() {
+        Long owner = userRepository.save(user("owner"));
+        Long liker = userRepository.save(user("liker"));
+        Long another = userRepository.save(user("another"));
+        UUID popular = imageRepository.save(image(owner, Protection.PUBLIC));
+        UUID hidden = imageRepository.save(image(owner, Protection.PRIVATE));
+        likeRepository.save(liker, popular);
+        likeRepository.save(liker, hidden);
+
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime now = LocalDateTime.now();
+        trendingRepository.addEvents(from, now, DECAY_RATE, 1.0, 2.0);
+        assertEquals(List.of(popular), trendingRepository.findTop(10));
+
+        UUID rising = imageRepository.save(image(owner, Protection.PUBLIC));
+        likeRepository.save(liker, rising);
+        likeRepository.save(another, rising);
+        LocalDateTime later = LocalDateTime.now().plusSeconds(2);
+        trendingRepository.addEvents(now, later, DECAY_RATE, 1.0, 2.0);
+
+        assertEquals(List.of(rising, popular), trendingRepository.findTop(10));
+    }
+
+    @Test
+    void decayScores_ShouldDropStaleImagesBelowThreshold() {
+        Long owner = userRepository.save(user("owner"));
+        UUID imageId = imageRepository.save(image(owner, Protection.PUBLIC));
+        likeRepository.save(userRepository.save(user("liker")), imageId);
+
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        trendingRepository.addEvents(now.minusMinutes(1), now, DECAY_RATE, 1.0, 2.0);
+        trendingRepository.decayScores(now.plusHours(10), DECAY_RATE);
+
+        assertEquals(1, trendingRepository.deleteBelow(0.01));
+        assertTrue(trendingRepository.findTop(10).isEmpty());
+    }
+
+    @Test
+    void updateWatermark_ShouldBeReturnedByLock() {
+        LocalDateTime watermark = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+        trendingRepository.updateWatermark(watermark);
+
+        assertEquals(watermark, trendingRepository.lockWatermark());
+    }
+
+    @Test
+    void currentTimestamp_ShouldCoverEventsStampedByDatabase() {
+        Long owner = userRepository.save(user("owner"));
+        UUID imageId = imageRepository.save(image(owner, Protection.PUBLIC));
+        likeRepository.save(userRepository.save(user("liker")), imageId);
+
+        LocalDateTime now = trendingRepository.currentTimestamp();
+        trendingRepository.addEvents(now.minusMinutes(1), now, DECAY_RATE, 1.0, 2.0);
+
+        assertEquals(List.of(imageId), trendingRepository.findTop(10));
+    }
+
+    private User user(String prefix) {
+        return User.builder()
+                .nickname(prefix + "-user")
+                .email(prefix + "@example.com")
+                .password("password")
+                .build();
+    }
+
+    private Image image(Long ownerId, Protection protection) {
+        return Image.builder()
+                .owner(User.builder().id(ownerId).build())
+                .protection(protection)
+                .build();
+    }
+}
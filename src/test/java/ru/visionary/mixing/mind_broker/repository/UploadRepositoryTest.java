@@ -0,0 +1,78 @@
+package ru.visionary.mixing.mind_broker.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.Upload;
+import ru.visionary.mixing.mind_broker.entity.UploadTarget;
+import ru.visionary.mixing.mind_broker.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class UploadRepositoryTest extends AbstractRepositoryTest {
+    @Autowired
+    private UploadRepository uploadRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void saveAndFindById_ShouldWork() {
+        Long userId = userRepository.save(createTestUser());
+        UUID id = UUID.randomUUID();
+
+        uploadRepository.save(createTestUpload(id, userId, LocalDateTime.now().plusMinutes(15)));
+        Upload found = uploadRepository.findById(id);
+
+        assertEquals(userId, found.owner().id());
+        assertEquals(UploadTarget.IMAGE, found.target());
+        assertEquals(Protection.PRIVATE, found.protection());
+    }
+
+    @Test
+    void deleteById_SecondCall_ReturnsZero() {
+        Long userId = userRepository.save(createTestUser());
+        UUID id = UUID.randomUUID();
+        uploadRepository.save(createTestUpload(id, userId, LocalDateTime.now().plusMinutes(15)));
+
+        assertEquals(1, uploadRepository.deleteById(id));
+        assertEquals(0, uploadRepository.deleteById(id));
+        assertNull(uploadRepository.findById(id));
+    }
+
+    @Test
+    void deleteExpired_RemovesOnlyExpiredUploads() {
+        Long userId = userRepository.save(createTestUser());
+        UUID expired = UUID.randomUUID();
+        UUID active = UUID.randomUUID();
+        uploadRepository.save(createTestUpload(expired, userId, LocalDateTime.now().minusMinutes(1)));
+        uploadRepository.save(createTestUpload(active, userId, LocalDateTime.now().plusMinutes(15)));
+
+        assertEquals(List.of(expired), uploadRepository.deleteExpired(LocalDateTime.now(), 10));
+        assertEquals(active, uploadRepository.findById(active).id());
+    }
+
+    private User createTestUser() {
+        return User.builder()
+                .nickname("uploaduser")
+                .email("upload@example.com")
+                .password("pass")
+                .build();
+    }
+
+    private Upload createTestUpload(UUID id, Long userId, LocalDateTime expiresAt) {
+        return Upload.builder()
+                .id(id)
+                .owner(User.builder().id(userId).build())
+                .target(UploadTarget.IMAGE)
+                .protection(Protection.PRIVATE)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
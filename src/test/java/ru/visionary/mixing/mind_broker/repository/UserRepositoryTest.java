@@ -6,6 +6,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.visionary.mixing.mind_broker.entity.User;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -93,7 +94,7 @@ class UserRepositoryTest extends AbstractRepositoryTest {
     @Test
     void updateUser_PartialUpdate_UpdatesOnlySpecifiedFields() {
         Long userId = userRepository.save(createTestUser());
-        userRepository.updateUser(userId, "newnick", null, null, null);
+        userRepository.updateUser(userId, "newnick", null, null, null, null);
 
         User updated = userRepository.findById(userId);
         assertEquals("newnick", updated.nickname());
@@ -112,11 +113,13 @@ class UserRepositoryTest extends AbstractRepositoryTest {
     @Test
     void deleteAvatar_RemovesAvatarUuid() {
         Long userId = userRepository.save(createTestUser());
-        userRepository.updateUser(userId, null, null, null, UUID.randomUUID());
+        userRepository.updateUser(userId, null, null, null, UUID.randomUUID(), List.of(128));
+        assertEquals(List.of(128), userRepository.findById(userId).avatarRenditions());
 
         userRepository.deleteAvatar(userId);
         User user = userRepository.findById(userId);
         assertNull(user.avatar());
+        assertTrue(user.avatarRenditions().isEmpty());
     }
 
     private User createTestUser() {
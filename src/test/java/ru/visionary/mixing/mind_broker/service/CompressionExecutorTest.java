@@ -0,0 +1,83 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.visionary.mixing.mind_broker.config.properties.CompressionPoolProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.entity.ImageHeader;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionExecutorTest {
+    private static final ImageHeader SMALL = new ImageHeader("png", 100, 100, 24);
+    private static final ImageHeader LARGE = new ImageHeader("png", 1000, 1000, 24);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompressionExecutor compressionExecutor = new CompressionExecutor(
+            new ImageProperties(null, new CompressionPoolProperties(1, 1, 4 * 1024 * 1024, Duration.ofMillis(50)), null, null),
+            meterRegistry
+    );
+
+    @AfterEach
+    void tearDown() {
+        compressionExecutor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldRunTaskAndRecordDuration() throws Exception {
+        assertEquals("done", compressionExecutor.execute(SMALL, () -> "done"));
+
+        assertEquals(1, meterRegistry.get("image.compression.duration").timer().count());
+        assertEquals(0.0, meterRegistry.get("image.compression.memory.used").gauge().value());
+    }
+
+    @Test
+    void execute_TaskFailure_ShouldRethrowCause() {
+        assertThrows(IOException.class, () -> compressionExecutor.execute(SMALL, () -> {
+            throw new IOException("broken");
+        }));
+    }
+
+    @Test
+    void execute_MemoryBudgetExhausted_ThrowsOverloaded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return compressionExecutor.execute(LARGE, () -> {
+                    started.countDown();
+                    return release.await(1, TimeUnit.SECONDS);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> compressionExecutor.execute(LARGE, () -> "rejected"));
+
+        assertEquals(ErrorCode.IMAGE_PROCESSING_OVERLOADED, exception.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("image.compression.rejected").counter().count());
+
+        release.countDown();
+        running.get(1, TimeUnit.SECONDS);
+        assertEquals("accepted", compressionExecutor.execute(LARGE, () -> "accepted"));
+    }
+
+    @Test
+    void recordRatio_ShouldRecordCompressedToOriginalRatio() {
+        compressionExecutor.recordRatio(1000, 250);
+
+        assertEquals(0.25, meterRegistry.get("image.compression.ratio").summary().mean());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import ru.visionary.mixing.mind_broker.config.properties.DownloadProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.entity.Download;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadServiceTest {
+    private static final StoredObjectInfo OBJECT = new StoredObjectInfo("images", "key", 1000, "image/png", "abc");
+
+    @Mock
+    private MinioService minioService;
+
+    private DownloadService downloadService() {
+        return new DownloadService(minioService,
+                new ImageProperties(null, null, null, new DownloadProperties(Duration.ofHours(1))));
+    }
+
+    @Test
+    void download_WithoutRange_StreamsWholeObject() {
+        InputStream stream = new ByteArrayInputStream(new byte[0]);
+        when(minioService.openObject(OBJECT, 0, null)).thenReturn(stream);
+
+        Download download = downloadService().download(OBJECT, CacheControl.noCache(), null, null);
+
+        assertEquals(HttpStatus.OK, download.status());
+        assertEquals(1000, download.length());
+        assertSame(stream, download.stream());
+        assertEquals("\"abc\"", download.etag());
+    }
+
+    @Test
+    void download_WithRange_StreamsOnlyRequestedBytes() {
+        when(minioService.openObject(OBJECT, 100, 100L)).thenReturn(new ByteArrayInputStream(new byte[100]));
+
+        Download download = downloadService().download(OBJECT, null, "bytes=100-199", null);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, download.status());
+        assertEquals(100, download.offset());
+        assertEquals(100, download.length());
+    }
+
+    @Test
+    void download_SuffixRange_StreamsTail() {
+        when(minioService.openObject(OBJECT, 900, 100L)).thenReturn(new ByteArrayInputStream(new byte[100]));
+
+        Download download = downloadService().download(OBJECT, null, "bytes=-100", null);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, download.status());
+        assertEquals(900, download.offset());
+    }
+
+    @Test
+    void download_RangeOutsideObject_ReturnsNotSatisfiable() {
+        Download download = downloadService().download(OBJECT, null, "bytes=1000-", null);
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, download.status());
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void download_MultipleRanges_StreamsWholeObject() {
+        when(minioService.openObject(OBJECT, 0, null)).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+        Download download = downloadService().download(OBJECT, null, "bytes=0-1,5-6", null);
+
+        assertEquals(HttpStatus.OK, download.status());
+    }
+
+    @Test
+    void download_MatchingEtag_ReturnsNotModified() {
+        Download download = downloadService().download(OBJECT, null, "bytes=0-1", "\"other\", W/\"abc\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, download.status());
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void cacheControl_DependsOnProtection() {
+        assertEquals("max-age=3600, public", downloadService().cacheControl(Protection.PUBLIC).getHeaderValue());
+        assertEquals("max-age=3600, private", downloadService().cacheControl(Protection.PRIVATE).getHeaderValue());
+    }
+}
@@ -0,0 +1,172 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.visionary.mixing.mind_broker.config.properties.FeedCacheProperties;
+import ru.visionary.mixing.mind_broker.entity.FeedChangedEvent;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.FeedSortType;
+import ru.visionary.mixing.mind_broker.entity.Image;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_SamePage_ShouldLoadOnceAndCountHit() {
+        FeedCache cache = cache(Duration.ofMinutes(1), 16);
+
+        List<Image> first = cache.get(FeedSortType.NEW, 10, 0, loader(List.of(image())));
+        List<Image> second = cache.get(FeedSortType.NEW, 10, 0, loader(List.of(image())));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("feed.cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("feed.cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_PagesBeyondLimitAndUncachedSorts_ShouldAlwaysLoad() {
+        FeedCache cache = cache(Duration.ofMinutes(1), 16);
+
+        cache.get(FeedSortType.NEW, 10, 2, loader(List.of()));
+        cache.get(FeedSortType.NEW, 10, 2, loader(List.of()));
+        cache.get(FeedSortType.FOLLOW, 10, 0, loader(List.of()));
+        cache.get(FeedSortType.FOLLOW, 10, 0, loader(List.of()));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_ConcurrentColdKey_ShouldRunSingleQuery() throws Exception {
+        FeedCache cache = cache(Duration.ofMinutes(1), 16);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Image> images = List.of(image());
+
+        CompletableFuture<List<Image>> leader = CompletableFuture.supplyAsync(() -> cache.get(FeedSortType.POPULAR, 10, 0, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return images;
+        }));
+        loading.await();
+        CompletableFuture<List<Image>> follower = CompletableFuture.supplyAsync(
+                () -> cache.get(FeedSortType.POPULAR, 10, 0, loader(List.of())));
+        release.countDown();
+
+        assertSame(images, leader.get());
+        assertSame(images, follower.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_LoaderThrowsError_ShouldFailWaitersAndEvictEntry() throws Exception {
+        FeedCache cache = cache(Duration.ofMinutes(1), 16);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<Image>> leader = CompletableFuture.supplyAsync(() -> cache.get(FeedSortType.NEW, 10, 0, () -> {
+            loading.countDown();
+            await(release);
+            throw new OutOfMemoryError("feed");
+        }));
+        loading.await();
+        CompletableFuture<List<Image>> follower = CompletableFuture.supplyAsync(
+                () -> cache.get(FeedSortType.NEW, 10, 0, loader(List.of())));
+        while (meterRegistry.get("feed.cache.gets").tag("result", "hit").counter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertInstanceOf(OutOfMemoryError.class, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertInstanceOf(OutOfMemoryError.class, assertThrows(ExecutionException.class, follower::get).getCause());
+        cache.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onFeedChanged_ShouldDropOnlyAffectedSorts() {
+        FeedCache cache = cache(Duration.ofMinutes(1), 16);
+        cache.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        cache.get(FeedSortType.POPULAR, 10, 0, loader(List.of()));
+
+        cache.onFeedChanged(new FeedChangedEvent(Set.of(FeedSortType.POPULAR)));
+        cache.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        cache.get(FeedSortType.POPULAR, 10, 0, loader(List.of()));
+
+        assertEquals(3, loads.get());
+        assertEquals(1, meterRegistry.get("feed.cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+
+    @Test
+    void get_ExpiredOrEvictedEntry_ShouldReload() {
+        FeedCache expiring = cache(Duration.ZERO, 16);
+        expiring.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        expiring.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        assertEquals(2, loads.get());
+
+        FeedCache small = cache(Duration.ofMinutes(1), 1);
+        small.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        small.get(FeedSortType.NEW, 10, 1, loader(List.of()));
+        small.get(FeedSortType.NEW, 10, 0, loader(List.of()));
+        assertEquals(5, loads.get());
+        assertEquals(2, meterRegistry.get("feed.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void get_CursorPages_ShouldCacheChainFromFirstPage() {
+        FeedCache cache = cache(Duration.ofMinutes(1), 16);
+        Image last = image();
+        FeedCursor next = FeedCursor.after(FeedSortType.NEW, last);
+        FeedCursor unknown = FeedCursor.after(FeedSortType.NEW, image());
+
+        cache.get(FeedSortType.NEW, 1, FeedCursor.first(FeedSortType.NEW), loader(List.of(last)));
+        cache.get(FeedSortType.NEW, 1, next, loader(List.of(image())));
+        cache.get(FeedSortType.NEW, 1, next, loader(List.of(image())));
+        cache.get(FeedSortType.NEW, 1, unknown, loader(List.of()));
+        cache.get(FeedSortType.NEW, 1, unknown, loader(List.of()));
+
+        assertEquals(4, loads.get());
+    }
+
+    private FeedCache cache(Duration ttl, int maxSize) {
+        return new FeedCache(new FeedCacheProperties(true, 2, maxSize, ttl), meterRegistry);
+    }
+
+    private Supplier<List<Image>> loader(List<Image> images) {
+        return () -> {
+            loads.incrementAndGet();
+            return images;
+        };
+    }
+
+    private Image image() {
+        return Image.builder()
+                .id(UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .likeCount(0L)
+                .build();
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.visionary.mixing.mind_broker.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -8,6 +9,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.visionary.mixing.generated.model.GetImagesResponse;
 import ru.visionary.mixing.generated.model.ImageResponse;
+import ru.visionary.mixing.mind_broker.config.properties.FeedCacheProperties;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.FeedSortType;
 import ru.visionary.mixing.mind_broker.entity.Image;
 import ru.visionary.mixing.mind_broker.entity.Protection;
 import ru.visionary.mixing.mind_broker.entity.User;
@@ -17,6 +21,7 @@ import ru.visionary.mixing.mind_broker.repository.FeedRepository;
 import ru.visionary.mixing.mind_broker.service.mapper.ImageMapperImpl;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -30,8 +35,17 @@ import static org.mockito.Mockito.*;
 class FeedServiceTest {
     @Mock
     private FeedRepository feedRepository;
+    @Mock
+    private TrendingService trendingService;
+    @Mock
+    private TimelineService timelineService;
+    @Mock
+    private ImageEnricher imageEnricher;
     @Spy
     private ImageMapperImpl imageMapper;
+    @Spy
+    private FeedCache feedCache = new FeedCache(
+            new FeedCacheProperties(true, 3, 16, Duration.ofMinutes(1)), new SimpleMeterRegistry());
 
     @InjectMocks
     private FeedService feedService;
@@ -41,7 +55,7 @@ class FeedServiceTest {
         when(feedRepository.getFeedByNew(null, 10, 0))
                 .thenReturn(Collections.emptyList());
 
-        GetImagesResponse response = feedService.getFeed("NEW", 10, 0);
+        GetImagesResponse response = feedService.getFeed("NEW", 10, 0, null);
 
         assertNotNull(response);
         verify(feedRepository).getFeedByNew(null, 10, 0);
@@ -54,7 +68,7 @@ class FeedServiceTest {
 
             ServiceException ex = assertThrows(
                     ServiceException.class,
-                    () -> feedService.getFeed("FOLLOW", 10, 0)
+                    () -> feedService.getFeed("FOLLOW", 10, 0, null)
             );
 
             assertEquals(ErrorCode.USER_NOT_AUTHORIZED, ex.getErrorCode());
@@ -65,7 +79,7 @@ class FeedServiceTest {
     void getFeed_InvalidSort_ThrowsException() {
         ServiceException ex = assertThrows(
                 ServiceException.class,
-                () -> feedService.getFeed("INVALID", 10, 0)
+                () -> feedService.getFeed("INVALID", 10, 0, null)
         );
 
         assertEquals(ErrorCode.INVALID_REQUEST, ex.getErrorCode());
@@ -78,7 +92,7 @@ class FeedServiceTest {
         when(imageMapper.toResponse(anyList()))
                 .thenReturn(List.of());
 
-        GetImagesResponse response = feedService.getFeed("NEW", 10, 0);
+        GetImagesResponse response = feedService.getFeed("NEW", 10, 0, null);
 
         assertTrue(response.getImages().isEmpty());
     }
@@ -91,7 +105,7 @@ class FeedServiceTest {
         when(feedRepository.getFeedByPopular(isNull(), anyInt(), anyInt()))
                 .thenReturn(List.of(mostPopular, leastPopular));
 
-        GetImagesResponse response = feedService.getFeed("POPULAR", 10, 0);
+        GetImagesResponse response = feedService.getFeed("POPULAR", 10, 0, null);
 
         assertEquals(2, response.getImages().size());
     }
@@ -105,7 +119,7 @@ class FeedServiceTest {
             when(feedRepository.getFeedByFollow(anyLong(), anyInt(), anyInt()))
                     .thenReturn(List.of());
 
-            GetImagesResponse response = feedService.getFeed("FOLLOW", 10, 0);
+            GetImagesResponse response = feedService.getFeed("FOLLOW", 10, 0, null);
 
             assertTrue(response.getImages().isEmpty());
         }
@@ -118,7 +132,7 @@ class FeedServiceTest {
         when(imageMapper.toResponse(anyList()))
                 .thenReturn(List.of(new ImageResponse()));
 
-        GetImagesResponse response = feedService.getFeed("NEW", 10, 1);
+        GetImagesResponse response = feedService.getFeed("NEW", 10, 1, null);
 
         assertEquals(1, response.getImages().size());
     }
@@ -130,7 +144,7 @@ class FeedServiceTest {
             utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(user);
 
             ServiceException ex = assertThrows(ServiceException.class,
-                    () -> feedService.getFeed("FOLLOW", 10, 0));
+                    () -> feedService.getFeed("FOLLOW", 10, 0, null));
 
             assertEquals(ErrorCode.CURRENT_USER_DELETED, ex.getErrorCode());
         }
@@ -148,12 +162,127 @@ class FeedServiceTest {
             when(feedRepository.getFeedByFollow(anyLong(), anyInt(), anyInt()))
                     .thenReturn(List.of(publicImage, privateImage));
 
-            GetImagesResponse response = feedService.getFeed("FOLLOW", 10, 0);
+            GetImagesResponse response = feedService.getFeed("FOLLOW", 10, 0, null);
 
             assertEquals(2, response.getImages().size());
         }
     }
 
+    @Test
+    void getFeed_WithoutPageOrCursor_UsesKeysetAndReturnsNextCursor() {
+        Image first = createTestImage(1L);
+        Image last = createTestImage(1L);
+        when(feedRepository.getFeedByNew(isNull(), eq(FeedCursor.first(FeedSortType.NEW)), eq(2)))
+                .thenReturn(List.of(first, last));
+
+        GetImagesResponse response = feedService.getFeed("NEW", 2, null, null);
+
+        assertEquals(
+                FeedCursor.after(FeedSortType.NEW, last),
+                FeedService.decodeCursor(response.getNextCursor(), FeedSortType.NEW)
+        );
+        verify(feedRepository, never()).getFeedByNew(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getFeed_WithCursor_ContinuesAfterCursor() {
+        FeedCursor cursor = new FeedCursor(FeedSortType.POPULAR, 5, LocalDateTime.now(), UUID.randomUUID());
+        when(feedRepository.getFeedByPopular(null, cursor, 10)).thenReturn(List.of(createTestImage(1L)));
+
+        GetImagesResponse response = feedService.getFeed("POPULAR", 10, null, FeedService.encodeCursor(cursor));
+
+        assertEquals(1, response.getImages().size());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void getFeed_CursorOfOtherSort_ThrowsException() {
+        String cursor = FeedService.encodeCursor(FeedCursor.first(FeedSortType.POPULAR));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> feedService.getFeed("NEW", 10, null, cursor));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, ex.getErrorCode());
+    }
+
+    @Test
+    void getFeed_MalformedCursor_ThrowsException() {
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> feedService.getFeed("NEW", 10, null, "not-a-cursor"));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, ex.getErrorCode());
+    }
+
+    @Test
+    void getFeed_NewSortForUser_SharesCachedPageAndFiltersOwnImages() {
+        Image own = createTestImage(1L);
+        Image other = createTestImage(2L);
+        when(feedRepository.getFeedByNew(null, FeedCursor.first(FeedSortType.NEW), 2)).thenReturn(List.of(own, other));
+
+        try (var utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(createActiveUser());
+            GetImagesResponse forUser = feedService.getFeed("NEW", 2, null, null);
+
+            assertEquals(List.of(other.id()), forUser.getImages().stream().map(ImageResponse::getUuid).toList());
+            assertEquals(FeedCursor.after(FeedSortType.NEW, other),
+                    FeedService.decodeCursor(forUser.getNextCursor(), FeedSortType.NEW));
+        }
+
+        GetImagesResponse anonymous = feedService.getFeed("NEW", 2, null, null);
+
+        assertEquals(2, anonymous.getImages().size());
+        verify(feedRepository, times(1)).getFeedByNew(isNull(), any(FeedCursor.class), anyInt());
+    }
+
+    @Test
+    void getFeed_FollowSortWithTimeline_ReadsPrecomputedTimeline() {
+        try (var utils = mockStatic(SecurityContextUtils.class)) {
+            User user = createActiveUser();
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(user);
+            when(timelineService.enabled()).thenReturn(true);
+            when(timelineService.getTimeline(user.id(), FeedCursor.first(FeedSortType.FOLLOW), 10))
+                    .thenReturn(List.of(createTestImage(2L)));
+
+            GetImagesResponse response = feedService.getFeed("FOLLOW", 10, null, null);
+
+            assertEquals(1, response.getImages().size());
+            verify(feedRepository, never()).getFeedByFollow(anyLong(), any(FeedCursor.class), anyInt());
+        }
+    }
+
+    @Test
+    void getFeed_TrendingSort_KeepsSnapshotOrderAndReturnsNextCursor() {
+        Image first = createTestImage(1L);
+        Image second = createTestImage(1L);
+        when(trendingService.page(0, 2)).thenReturn(List.of(first.id(), second.id()));
+        when(trendingService.hasMore(2)).thenReturn(true);
+        when(feedRepository.getFeedByIds(null, List.of(first.id(), second.id()))).thenReturn(List.of(second, first));
+
+        GetImagesResponse response = feedService.getFeed("TRENDING", 2, null, null);
+
+        assertEquals(List.of(first.id(), second.id()), response.getImages().stream().map(ImageResponse::getUuid).toList());
+        assertEquals(
+                FeedCursor.at(FeedSortType.TRENDING, second.id()),
+                FeedService.decodeCursor(response.getNextCursor(), FeedSortType.TRENDING)
+        );
+    }
+
+    @Test
+    void getFeed_TrendingSortWithCursor_ContinuesAfterCursorImage() {
+        UUID last = UUID.randomUUID();
+        Image next = createTestImage(1L);
+        when(trendingService.offsetAfter(last)).thenReturn(5);
+        when(trendingService.page(5, 10)).thenReturn(List.of(next.id()));
+        when(trendingService.hasMore(6)).thenReturn(false);
+        when(feedRepository.getFeedByIds(null, List.of(next.id()))).thenReturn(List.of(next));
+
+        GetImagesResponse response = feedService.getFeed("TRENDING", 10, null,
+                FeedService.encodeCursor(FeedCursor.at(FeedSortType.TRENDING, last)));
+
+        assertEquals(1, response.getImages().size());
+        assertNull(response.getNextCursor());
+    }
+
     private User createActiveUser() {
         return User.builder()
                 .id(1L)
@@ -28,6 +28,8 @@ class FollowServiceTest {
     private FollowRepository followRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private TimelineService timelineService;
     @Spy
     private UserMapperImpl userMapper;
 
@@ -45,6 +47,7 @@ class FollowServiceTest {
 
             assertDoesNotThrow(() -> followService.follow(2L));
             verify(followRepository).save(any());
+            verify(timelineService).follow(1L, 2L);
         }
     }
 
@@ -85,6 +88,7 @@ class FollowServiceTest {
             when(followRepository.deleteByFollowerAndFollow(1L, 2L)).thenReturn(1);
 
             assertDoesNotThrow(() -> followService.unfollow(2L));
+            verify(timelineService).unfollow(1L, 2L);
         }
     }
 
@@ -0,0 +1,61 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.repository.ImageContentRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageContentServiceTest {
+    @Mock
+    private ImageContentRepository imageContentRepository;
+    @Mock
+    private ObjectDeletionService objectDeletionService;
+
+    @InjectMocks
+    private ImageContentService imageContentService;
+
+    @Test
+    void register_StoredConcurrently_SchedulesDeletionOfOwnObjects() {
+        UUID id = UUID.randomUUID();
+        UUID stored = UUID.randomUUID();
+        when(imageContentRepository.insertOrAcquire(any())).thenReturn(new ImageContent(stored, "hash", 2, List.of(128)));
+
+        ImageContent content = imageContentService.register(id, "hash", List.of(128));
+
+        assertEquals(stored, content.id());
+        verify(objectDeletionService).deleteImage(id, List.of(128));
+    }
+
+    @Test
+    void release_LastReference_SchedulesObjectDeletion() {
+        UUID id = UUID.randomUUID();
+        when(imageContentRepository.release(id)).thenReturn(new ImageContent(id, "hash", 0, List.of(128)));
+        when(imageContentRepository.deleteUnreferenced(id)).thenReturn(1);
+
+        imageContentService.release(id);
+
+        verify(objectDeletionService).deleteImage(id, List.of(128));
+    }
+
+    @Test
+    void release_StillReferenced_KeepsObject() {
+        UUID id = UUID.randomUUID();
+        when(imageContentRepository.release(id)).thenReturn(new ImageContent(id, "hash", 1, List.of()));
+
+        imageContentService.release(id);
+
+        verify(imageContentRepository, never()).deleteUnreferenced(any());
+        verifyNoInteractions(objectDeletionService);
+    }
+}
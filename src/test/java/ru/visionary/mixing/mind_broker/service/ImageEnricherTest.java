@@ -0,0 +1,64 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.generated.model.ImageResponse;
+import ru.visionary.mixing.mind_broker.repository.CommentRepository;
+import ru.visionary.mixing.mind_broker.repository.LikeRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageEnricherTest {
+    @Mock
+    private LikeRepository likeRepository;
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private ImageEnricher imageEnricher;
+
+    @Test
+    void enrich_AuthenticatedUser_MergesFlagsAndCommentCounts() {
+        ImageResponse liked = new ImageResponse(UUID.randomUUID());
+        ImageResponse other = new ImageResponse(UUID.randomUUID());
+        List<UUID> ids = List.of(liked.getUuid(), other.getUuid());
+        when(likeRepository.findLikedImages(1L, ids)).thenReturn(Set.of(liked.getUuid()));
+        when(commentRepository.countByImages(ids)).thenReturn(Map.of(other.getUuid(), 2L));
+
+        imageEnricher.enrich(List.of(liked, other), 1L);
+
+        assertTrue(liked.getLiked());
+        assertEquals(0L, liked.getComments());
+        assertFalse(other.getLiked());
+        assertEquals(2L, other.getComments());
+    }
+
+    @Test
+    void enrich_Anonymous_LeavesLikedUnset() {
+        ImageResponse image = new ImageResponse(UUID.randomUUID());
+        when(commentRepository.countByImages(anyList())).thenReturn(Map.of());
+
+        imageEnricher.enrich(List.of(image), null);
+
+        assertNull(image.getLiked());
+        verify(likeRepository, never()).findLikedImages(anyLong(), anyList());
+    }
+
+    @Test
+    void enrich_EmptyPage_SkipsQueries() {
+        imageEnricher.enrich(List.of(), 1L);
+
+        verifyNoInteractions(likeRepository, commentRepository);
+    }
+}
@@ -0,0 +1,215 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import ru.visionary.mixing.mind_broker.config.properties.CompressionPoolProperties;
+import ru.visionary.mixing.mind_broker.config.properties.CompressionProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageValidationProperties;
+import ru.visionary.mixing.mind_broker.config.properties.RenditionProperties;
+import ru.visionary.mixing.mind_broker.entity.ImageHeader;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
+import ru.visionary.mixing.mind_broker.entity.Rendition;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.service.encoder.ImageEncoders;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImagePipelineTest {
+    private final ImageProperties imageProperties = new ImageProperties(
+            new ImageValidationProperties(12000, 12000, 100_000_000),
+            new CompressionPoolProperties(1, 1, 64 * 1024 * 1024, Duration.ofSeconds(1)),
+            new RenditionProperties(true, List.of(128, 512, 1080), "jpeg", 0.8),
+            null
+    );
+    private final CompressionExecutor compressionExecutor = new CompressionExecutor(imageProperties, new SimpleMeterRegistry());
+    private final ImagePipeline imagePipeline = new ImagePipeline(imageProperties, compressionExecutor, new ImageEncoders());
+
+    @AfterEach
+    void tearDown() {
+        compressionExecutor.shutdown();
+    }
+
+    @Test
+    void prepare_WithoutCompression_ShouldReadHeaderAndKeepOriginal() throws Exception {
+        byte[] png = png(300, 200);
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png);
+
+        PreparedImage prepared = imagePipeline.prepare(file);
+
+        assertEquals("png", prepared.header().format());
+        assertEquals(300, prepared.header().width());
+        assertEquals(200, prepared.header().height());
+        assertEquals("image/png", prepared.contentType());
+        assertEquals(png.length, prepared.size());
+        assertArrayEquals(png, prepared.bytes());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png)), prepared.hash());
+    }
+
+    @Test
+    void prepare_WithCompression_ShouldDownscaleToJpeg() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(400, 200));
+
+        PreparedImage prepared = imagePipeline.prepare(file, new CompressionProperties(true, "jpeg", 0.75, null, 0.4, 100, 100, 0));
+
+        assertEquals("image/jpeg", prepared.contentType());
+        BufferedImage compressed = ImageIO.read(new ByteArrayInputStream(prepared.bytes()));
+        assertEquals(100, compressed.getWidth());
+        assertEquals(50, compressed.getHeight());
+    }
+
+    @Test
+    void prepare_MuchLargerThanTarget_ShouldDecodeSubsampledAndResize() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(2000, 1000));
+
+        PreparedImage prepared = imagePipeline.prepare(file, new CompressionProperties(true, "jpeg", 0.75, null, 0.4, 300, 300, 0));
+
+        BufferedImage compressed = ImageIO.read(new ByteArrayInputStream(prepared.bytes()));
+        assertEquals(300, compressed.getWidth());
+        assertEquals(150, compressed.getHeight());
+    }
+
+    @Test
+    void prepare_WebpFormat_ShouldEncodeWebp() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(400, 200));
+
+        PreparedImage prepared = imagePipeline.prepare(file, new CompressionProperties(true, "webp", 0.75, null, 0.4, 100, 100, 0));
+
+        assertEquals("image/webp", prepared.contentType());
+        assertEquals("RIFF", new String(prepared.bytes(), 0, 4));
+    }
+
+    @Test
+    void prepare_TargetSize_ShouldLowerQualityToFitBudget() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", noisyPng(300, 300));
+        PreparedImage fixed = imagePipeline.prepare(file, new CompressionProperties(true, "jpeg", 0.95, null, 0.1, 300, 300, 0));
+        int targetSize = fixed.bytes().length / 2;
+
+        PreparedImage adaptive = imagePipeline.prepare(file, new CompressionProperties(true, "jpeg", 0.95, targetSize, 0.1, 300, 300, 0));
+
+        assertTrue(adaptive.bytes().length <= targetSize);
+        assertEquals("image/jpeg", adaptive.contentType());
+    }
+
+    @Test
+    void subsampling_ShouldKeepDecodedImageAtLeastTargetSize() {
+        CompressionProperties compression = new CompressionProperties(true, "jpeg", 0.75, null, 0.4, 1920, 1920, 0);
+
+        assertEquals(1, ImagePipeline.subsampling(new ImageHeader("jpeg", 1920, 1080, 24), compression));
+        assertEquals(1, ImagePipeline.subsampling(new ImageHeader("jpeg", 3000, 2000, 24), compression));
+        assertEquals(3, ImagePipeline.subsampling(new ImageHeader("jpeg", 6000, 4000, 24), compression));
+        assertEquals(4, ImagePipeline.subsampling(new ImageHeader("jpeg", 4000, 8000, 24), compression));
+    }
+
+    @Test
+    void prepare_SmallerThanMinLength_ShouldKeepOriginal() throws Exception {
+        byte[] png = png(400, 200);
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png);
+
+        PreparedImage prepared = imagePipeline.prepare(file, new CompressionProperties(true, "jpeg", 0.75, null, 0.4, 100, 100, png.length + 1));
+
+        assertArrayEquals(png, prepared.bytes());
+    }
+
+    @Test
+    void prepare_ShouldGenerateOnlyRenditionsSmallerThanOriginal() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(800, 400));
+
+        List<Rendition> renditions = imagePipeline.prepare(file).renditions();
+
+        assertEquals(List.of(512, 128), renditions.stream().map(Rendition::size).toList());
+        BufferedImage medium = ImageIO.read(new ByteArrayInputStream(renditions.get(0).data()));
+        assertEquals(512, medium.getWidth());
+        assertEquals(256, medium.getHeight());
+        BufferedImage small = ImageIO.read(new ByteArrayInputStream(renditions.get(1).data()));
+        assertEquals(128, small.getWidth());
+        assertEquals(64, small.getHeight());
+        assertEquals("image/jpeg", renditions.get(1).contentType());
+    }
+
+    @Test
+    void prepare_RenditionsDisabled_ShouldReturnNoRenditions() throws Exception {
+        ImagePipeline disabled = new ImagePipeline(
+                new ImageProperties(imageProperties.validation(), imageProperties.compressionPool(),
+                        new RenditionProperties(false, List.of(128), "jpeg", 0.8), null),
+                compressionExecutor,
+                new ImageEncoders()
+        );
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(800, 400));
+
+        assertTrue(disabled.prepare(file).renditions().isEmpty());
+    }
+
+    @Test
+    void prepare_WithRenditions_ShouldReadSourceOnce() throws Exception {
+        byte[] png = png(800, 400);
+        AtomicInteger reads = new AtomicInteger();
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png) {
+            @Override
+            public InputStream getInputStream() {
+                reads.incrementAndGet();
+                return new ByteArrayInputStream(png);
+            }
+        };
+
+        PreparedImage prepared = imagePipeline.prepare(file);
+
+        assertEquals(1, reads.get());
+        assertEquals(List.of(512, 128), prepared.renditionSizes());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png)), prepared.hash());
+    }
+
+    @Test
+    void prepare_WithCompression_ShouldSkipHashAndRenditions() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(800, 400));
+
+        PreparedImage prepared = imagePipeline.prepare(file, new CompressionProperties(true, "jpeg", 0.75, null, 0.4, 100, 100, 0));
+
+        assertNull(prepared.hash());
+        assertTrue(prepared.renditions().isEmpty());
+    }
+
+    @Test
+    void prepare_InvalidImage_ThrowsException() {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", new byte[100]);
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> imagePipeline.prepare(file));
+
+        assertEquals(ErrorCode.FILE_FORMAT_NOT_SUPPORTED, exception.getErrorCode());
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", os);
+        return os.toByteArray();
+    }
+
+    private byte[] noisyPng(int width, int height) throws IOException {
+        Random random = new Random(42);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", os);
+        return os.toByteArray();
+    }
+}
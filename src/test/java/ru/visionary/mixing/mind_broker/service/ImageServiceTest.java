@@ -4,20 +4,36 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import ru.visionary.mixing.generated.model.ImageResponse;
 import ru.visionary.mixing.generated.model.UpdateImageRequest;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageValidationProperties;
+import ru.visionary.mixing.mind_broker.entity.Download;
+import ru.visionary.mixing.mind_broker.entity.FeedChangedEvent;
 import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
 import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.service.encoder.ImageEncoders;
+import ru.visionary.mixing.mind_broker.service.mapper.ImageMapperImpl;
 import ru.visionary.mixing.mind_broker.repository.ImageRepository;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +45,28 @@ class ImageServiceTest {
     private ImageRepository imageRepository;
     @Mock
     private MinioService minioService;
+    @Mock
+    private ObjectDeletionService objectDeletionService;
+    @Mock
+    private ImageContentService imageContentService;
+    @Mock
+    private DownloadService downloadService;
+    @Mock
+    private TimelineService timelineService;
+    @Mock
+    private ImageEnricher imageEnricher;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private ImageMapperImpl imageMapper;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Spy
+    private ImagePipeline imagePipeline = new ImagePipeline(
+            new ImageProperties(new ImageValidationProperties(12000, 12000, 100_000_000), null, null, null),
+            mock(CompressionExecutor.class),
+            mock(ImageEncoders.class)
+    );
 
     @InjectMocks
     private ImageService imageService;
@@ -101,6 +139,29 @@ class ImageServiceTest {
         }
     }
 
+    @Test
+    void getImage_PublicImage_LoadsOnceAndEnriches() {
+        UUID uuid = UUID.randomUUID();
+        User user = createTestUser(true);
+        when(imageRepository.findById(uuid)).thenReturn(Image.builder()
+                .id(uuid)
+                .owner(user)
+                .protection(Protection.PUBLIC)
+                .likeCount(7L)
+                .build());
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(user);
+
+            ImageResponse response = imageService.getImage(uuid);
+            assertEquals(uuid, response.getUuid());
+            assertEquals(7L, response.getLikes());
+        }
+
+        verify(imageRepository, times(1)).findById(uuid);
+        verify(imageEnricher).enrich(argThat(images -> images.size() == 1), eq(user.id()));
+    }
+
     @Test
     void getImage_NonExistingImage_ThrowsNotFoundException() {
         UUID nonExistingId = UUID.randomUUID();
@@ -169,6 +230,8 @@ class ImageServiceTest {
             imageService.updateImage(imageId, request);
 
             verify(imageRepository).updateProtection(imageId, Protection.PRIVATE);
+            verify(timelineService).retract(imageId);
+            verify(eventPublisher).publishEvent(FeedChangedEvent.images());
         }
     }
 
@@ -191,7 +254,7 @@ class ImageServiceTest {
 
             assertDoesNotThrow(() -> imageService.deleteById(uuid));
             verify(imageRepository).deleteById(uuid);
-            verify(minioService).deleteImage(uuid);
+            verify(objectDeletionService).deleteImage(eq(uuid), any());
         }
     }
 
@@ -218,6 +281,179 @@ class ImageServiceTest {
             Image image = Image.builder()
                     .id(imageId)
                     .owner(owner)
+                    .renditions(List.of(512, 128))
+                    .build();
+
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(owner);
+            when(imageRepository.findById(imageId)).thenReturn(image);
+
+            imageService.deleteById(imageId);
+
+            verify(imageRepository).deleteById(imageId);
+            verify(objectDeletionService).deleteImage(imageId, List.of(512, 128));
+            verifyNoInteractions(minioService);
+        }
+    }
+
+    @Test
+    void downloadImage_PrivateImageWithoutAccess_ThrowsForbidden() {
+        Image image = createTestImage(createTestUser(true), Protection.PRIVATE);
+        when(imageRepository.findById(image.id())).thenReturn(image);
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(null);
+
+            ServiceException ex = assertThrows(ServiceException.class,
+                    () -> imageService.downloadImage(image.id(), null, null, null));
+
+            assertEquals(ErrorCode.ACCESS_FORBIDDEN, ex.getErrorCode());
+            verifyNoInteractions(minioService, downloadService);
+        }
+    }
+
+    @Test
+    void downloadImage_Rendition_StatsDerivedKey() {
+        UUID uuid = UUID.randomUUID();
+        Image image = Image.builder()
+                .id(uuid)
+                .owner(createTestUser(true))
+                .protection(Protection.PUBLIC)
+                .renditions(List.of(512, 128))
+                .build();
+        StoredObjectInfo object = new StoredObjectInfo("images", uuid + "/512", 10, "image/webp", "etag");
+        Download download = Download.notModified(object, null);
+        when(imageRepository.findById(uuid)).thenReturn(image);
+        when(minioService.statImage(uuid + "/512")).thenReturn(object);
+        when(downloadService.download(eq(object), any(), eq("bytes=0-1"), eq("\"etag\""))).thenReturn(download);
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(null);
+
+            assertEquals(download, imageService.downloadImage(uuid, 512, "bytes=0-1", "\"etag\""));
+        }
+    }
+
+    @Test
+    void downloadImage_SharedContent_StatsContentKey() {
+        UUID uuid = UUID.randomUUID();
+        UUID content = UUID.randomUUID();
+        Image image = Image.builder()
+                .id(uuid)
+                .owner(createTestUser(true))
+                .protection(Protection.PUBLIC)
+                .renditions(List.of(512))
+                .content(content)
+                .build();
+        StoredObjectInfo object = new StoredObjectInfo("images", content + "/512", 10, "image/webp", "etag");
+        when(imageRepository.findById(uuid)).thenReturn(image);
+        when(minioService.statImage(content + "/512")).thenReturn(object);
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(null);
+
+            imageService.downloadImage(uuid, 512, null, null);
+            verify(downloadService).download(eq(object), any(), isNull(), isNull());
+        }
+    }
+
+    @Test
+    void saveImage_DuplicateContent_SkipsUpload() throws Exception {
+        MultipartFile file = new MockMultipartFile("test.png", "test.png", "image/png", new byte[10]);
+        UUID content = UUID.randomUUID();
+        doReturn(PreparedImage.original(null, file, "hash", List.of())).when(imagePipeline).prepare(file);
+        when(imageContentService.acquire("hash")).thenReturn(new ImageContent(content, "hash", 2, List.of(128)));
+        UUID imageId = UUID.randomUUID();
+        when(imageRepository.save(any())).thenReturn(imageId);
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            User user = createTestUser(true);
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(user);
+
+            imageService.saveImage(file, "public");
+            verify(timelineService).publish(imageId, user.id());
+        }
+
+        verify(imageRepository).save(argThat(image -> content.equals(image.content())
+                && image.renditions().equals(List.of(128))));
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void createImage_PrivateImage_SkipsTimelineAndFeedInvalidation() {
+        UUID imageId = UUID.randomUUID();
+        when(imageRepository.save(any())).thenReturn(imageId);
+
+        UUID saved = imageService.createImage(Image.builder()
+                .id(imageId)
+                .owner(createTestUser(true))
+                .protection(Protection.PRIVATE)
+                .build());
+
+        assertEquals(imageId, saved);
+        verifyNoInteractions(timelineService, eventPublisher);
+    }
+
+    @Test
+    void createImage_InsertFails_ReleasesContentReference() {
+        UUID content = UUID.randomUUID();
+        when(imageRepository.save(any())).thenThrow(new DataIntegrityViolationException("owner"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> imageService.createImage(Image.builder()
+                .owner(createTestUser(true))
+                .protection(Protection.PUBLIC)
+                .content(content)
+                .build()));
+
+        verify(imageContentService).release(content);
+        verifyNoInteractions(timelineService, eventPublisher);
+    }
+
+    @Test
+    void saveImage_UploadFails_SchedulesDeletionOfPartialObjects() throws Exception {
+        MultipartFile file = new MockMultipartFile("test.png", "test.png", "image/png", new byte[10]);
+        PreparedImage prepared = PreparedImage.original(null, file, "hash", List.of());
+        doReturn(prepared).when(imagePipeline).prepare(file);
+        doThrow(new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO)).when(minioService).uploadImage(eq(prepared), any());
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(createTestUser(true));
+
+            assertThrows(ServiceException.class, () -> imageService.saveImage(file, "public"));
+        }
+
+        verify(objectDeletionService).deleteImage(any(), eq(List.of()));
+        verify(imageContentService, never()).register(any(), any(), any());
+        verifyNoInteractions(imageRepository);
+    }
+
+    @Test
+    void saveImage_NewContent_UploadsUnderContentKey() throws Exception {
+        MultipartFile file = new MockMultipartFile("test.png", "test.png", "image/png", new byte[10]);
+        PreparedImage prepared = PreparedImage.original(null, file, "hash", List.of());
+        doReturn(prepared).when(imagePipeline).prepare(file);
+        when(imageContentService.register(any(), eq("hash"), eq(List.of())))
+                .thenAnswer(invocation -> new ImageContent(invocation.getArgument(0), "hash", 1, List.of()));
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(createTestUser(true));
+
+            imageService.saveImage(file, "public");
+        }
+
+        verify(minioService).uploadImage(eq(prepared), argThat(key -> key != null));
+        verify(imageRepository).save(argThat(image -> image.content() != null));
+    }
+
+    @Test
+    void deleteImage_SharedContent_ReleasesReference() {
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            User owner = createTestUser(true);
+            UUID imageId = UUID.randomUUID();
+            UUID content = UUID.randomUUID();
+            Image image = Image.builder()
+                    .id(imageId)
+                    .owner(owner)
+                    .content(content)
                     .build();
 
             utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(owner);
@@ -226,7 +462,23 @@ class ImageServiceTest {
             imageService.deleteById(imageId);
 
             verify(imageRepository).deleteById(imageId);
-            verify(minioService).deleteImage(imageId);
+            verify(imageContentService).release(content);
+            verifyNoInteractions(objectDeletionService);
+        }
+    }
+
+    @Test
+    void downloadImage_UnknownRendition_ThrowsNotFound() {
+        Image image = createTestImage(createTestUser(true), Protection.PUBLIC);
+        when(imageRepository.findById(image.id())).thenReturn(image);
+
+        try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
+            utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(null);
+
+            ServiceException ex = assertThrows(ServiceException.class,
+                    () -> imageService.downloadImage(image.id(), 64, null, null));
+
+            assertEquals(ErrorCode.FILE_NOT_FOUND, ex.getErrorCode());
         }
     }
 
@@ -1,26 +1,43 @@
 package ru.visionary.mixing.mind_broker.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 import ru.visionary.mixing.mind_broker.config.properties.MinioProperties;
+import ru.visionary.mixing.mind_broker.entity.PreparedImage;
+import ru.visionary.mixing.mind_broker.entity.Rendition;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,10 +46,32 @@ class MinioServiceTest {
     private MinioClient minioClient;
     @Mock
     private MinioProperties minioProperties;
+    @Mock
+    private MultipartUploader multipartUploader;
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
 
     @InjectMocks
     private MinioService minioService;
 
+    @Test
+    void createBuckets_ShouldCreateOnlyMissingBuckets() throws Exception {
+        doReturn(true).when(minioProperties).createBuckets();
+        doReturn("images").when(minioProperties).imagesBucket();
+        doReturn("avatars").when(minioProperties).avatarsBucket();
+        doReturn("staging").when(minioProperties).stagingBucket();
+        doReturn("results").when(minioProperties).resultsBucket();
+        doReturn("uploads").when(minioProperties).uploadsBucket();
+        doReturn(false).when(minioClient).bucketExists(argThat(args -> args != null && args.bucket().equals("staging")));
+        doReturn(true).when(minioClient).bucketExists(argThat(args -> args != null && !args.bucket().equals("staging")));
+
+        minioService.createBuckets();
+
+        ArgumentCaptor<MakeBucketArgs> captor = ArgumentCaptor.forClass(MakeBucketArgs.class);
+        verify(minioClient).makeBucket(captor.capture());
+        assertEquals("staging", captor.getValue().bucket());
+    }
+
     @Test
     void uploadImage_SuccessfulUpload_NoExceptions() throws Exception {
         MultipartFile file = new MockMultipartFile(
@@ -44,7 +83,7 @@ class MinioServiceTest {
 
         doReturn("test-bucket").when(minioProperties).imagesBucket();
 
-        assertDoesNotThrow(() -> minioService.uploadImage(file, UUID.randomUUID()));
+        assertDoesNotThrow(() -> minioService.uploadImage(PreparedImage.original(null, file), UUID.randomUUID()));
         verify(minioClient).putObject(any(PutObjectArgs.class));
     }
 
@@ -61,27 +100,95 @@ class MinioServiceTest {
         doThrow(new RuntimeException()).when(minioClient).putObject(any(PutObjectArgs.class));
 
         ServiceException exception = assertThrows(ServiceException.class,
-                () -> minioService.uploadImage(file, UUID.randomUUID()));
+                () -> minioService.uploadImage(PreparedImage.original(null, file), UUID.randomUUID()));
 
         assertEquals(ErrorCode.FAILED_UPLOAD_MINIO, exception.getErrorCode());
     }
 
     @Test
-    void deleteImage_SuccessfulDeletion_NoExceptions() {
+    void deleteUpload_SuccessfulDeletion_NoExceptions() {
         UUID uuid = UUID.randomUUID();
-        doReturn("test-bucket").when(minioProperties).imagesBucket();
+        doReturn("test-bucket").when(minioProperties).uploadsBucket();
 
-        assertDoesNotThrow(() -> minioService.deleteImage(uuid));
+        assertDoesNotThrow(() -> minioService.deleteUpload(uuid));
     }
 
     @Test
-    void deleteImage_DeletionFailure_ThrowsException() throws Exception {
+    void deleteUpload_DeletionFailure_ThrowsException() throws Exception {
         UUID uuid = UUID.randomUUID();
-        doReturn("test-bucket").when(minioProperties).imagesBucket();
+        doReturn("test-bucket").when(minioProperties).uploadsBucket();
         doThrow(new RuntimeException()).when(minioClient).removeObject(any());
 
         ServiceException ex = assertThrows(ServiceException.class,
-                () -> minioService.deleteImage(uuid));
+                () -> minioService.deleteUpload(uuid));
+        assertEquals(ErrorCode.FAILED_DELETE_MINIO, ex.getErrorCode());
+    }
+
+    @Test
+    void removeObjects_ShouldReturnKeysThatFailedToDelete() throws Exception {
+        DeleteError error = mock(DeleteError.class);
+        doReturn("second").when(error).objectName();
+        doReturn(List.of(new Result<>(error))).when(minioClient).removeObjects(any(RemoveObjectsArgs.class));
+
+        assertEquals(List.of("second"), minioService.removeObjects("test-bucket", List.of("first", "second")));
+    }
+
+    @Test
+    void removeObjects_RequestFailure_ThrowsException() {
+        doThrow(new RuntimeException()).when(minioClient).removeObjects(any(RemoveObjectsArgs.class));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> minioService.removeObjects("test-bucket", List.of("first")));
         assertEquals(ErrorCode.FAILED_DELETE_MINIO, ex.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void uploadImageRenditions_ShouldStoreEachSizeUnderDerivedKey() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        doReturn("test-bucket").when(minioProperties).imagesBucket();
+
+        minioService.uploadImageRenditions(List.of(
+                new Rendition(512, "image/webp", new byte[10]),
+                new Rendition(128, "image/webp", new byte[5])
+        ), uuid);
+
+        ArgumentCaptor<PutObjectArgs> captor = ArgumentCaptor.forClass(PutObjectArgs.class);
+        verify(minioClient, times(2)).putObject(captor.capture());
+        assertEquals(
+                List.of(uuid + "/512", uuid + "/128"),
+                captor.getAllValues().stream().map(PutObjectArgs::object).toList()
+        );
+    }
+
+    @Test
+    void uploadImage_LargeFile_UploadsInPartsAndRecordsThroughput() throws Exception {
+        MultipartFile file = new MockMultipartFile("test.jpg", "test.jpg", "image/jpeg", new byte[32]);
+        UUID uuid = UUID.randomUUID();
+        doReturn("test-bucket").when(minioProperties).imagesBucket();
+        doReturn(true).when(multipartUploader).supports(32);
+        doReturn(CompletableFuture.completedFuture(null)).when(multipartUploader)
+                .upload(eq("test-bucket"), eq(uuid.toString()), any(), eq(32L), eq("image/jpeg"));
+
+        minioService.uploadImage(PreparedImage.original(null, file), uuid);
+
+        verify(minioClient, never()).putObject(any());
+        assertEquals(1, meterRegistry.get("minio.upload.throughput")
+                .tag("bucket", "test-bucket")
+                .tag("mode", "multipart")
+                .summary()
+                .count());
+    }
+
+    @Test
+    void uploadImage_MultipartFailure_ThrowsException() {
+        MultipartFile file = new MockMultipartFile("test.jpg", "test.jpg", "image/jpeg", new byte[32]);
+        doReturn("test-bucket").when(minioProperties).imagesBucket();
+        doReturn(true).when(multipartUploader).supports(32);
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("part failed"))).when(multipartUploader)
+                .upload(any(), any(), any(), anyLong(), any());
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> minioService.uploadImage(PreparedImage.original(null, file), UUID.randomUUID()));
+        assertEquals(ErrorCode.FAILED_UPLOAD_MINIO, ex.getErrorCode());
+    }
+}
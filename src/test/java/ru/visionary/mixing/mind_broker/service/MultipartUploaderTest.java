@@ -0,0 +1,128 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import io.minio.CreateMultipartUploadResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.UploadPartResponse;
+import io.minio.messages.InitiateMultipartUploadResult;
+import io.minio.messages.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import ru.visionary.mixing.mind_broker.config.properties.MinioProperties;
+import ru.visionary.mixing.mind_broker.config.properties.MultipartUploadProperties;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class MultipartUploaderTest {
+    @Mock
+    private MinioAsyncClient minioAsyncClient;
+    @Mock
+    private MinioProperties minioProperties;
+
+    private MultipartUploader multipartUploader;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(new MultipartUploadProperties(true, DataSize.ofBytes(10), DataSize.ofBytes(4), 2))
+                .when(minioProperties).multipart();
+        multipartUploader = new MultipartUploader(minioAsyncClient, minioProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        multipartUploader.shutdown();
+    }
+
+    @Test
+    void supports_ShouldRequireThreshold() {
+        assertFalse(multipartUploader.supports(9));
+        assertTrue(multipartUploader.supports(10));
+    }
+
+    @Test
+    void upload_ShouldSendPartsAndCompleteInOrder() throws Exception {
+        mockCreate();
+        UploadPartResponse partResponse = mock(UploadPartResponse.class);
+        doReturn("etag").when(partResponse).etag();
+        doReturn(CompletableFuture.completedFuture(partResponse)).when(minioAsyncClient)
+                .uploadPartAsync(eq("bucket"), any(), eq("key"), any(), anyLong(), eq("upload-id"), anyInt(), any(), any());
+        doReturn(CompletableFuture.completedFuture(mock(ObjectWriteResponse.class))).when(minioAsyncClient)
+                .completeMultipartUploadAsync(eq("bucket"), any(), eq("key"), eq("upload-id"), any(), any(), any());
+
+        multipartUploader.upload("bucket", "key", new ByteArrayInputStream(new byte[10]), 10, "image/png").get();
+
+        verify(minioAsyncClient).uploadPartAsync(any(), any(), any(), any(), eq(4L), any(), eq(1), any(), any());
+        verify(minioAsyncClient).uploadPartAsync(any(), any(), any(), any(), eq(4L), any(), eq(2), any(), any());
+        verify(minioAsyncClient).uploadPartAsync(any(), any(), any(), any(), eq(2L), any(), eq(3), any(), any());
+        ArgumentCaptor<Part[]> parts = ArgumentCaptor.forClass(Part[].class);
+        verify(minioAsyncClient).completeMultipartUploadAsync(any(), any(), any(), any(), parts.capture(), any(), any());
+        assertEquals(3, parts.getValue().length);
+        assertEquals(3, parts.getValue()[2].partNumber());
+        verify(minioAsyncClient, never()).abortMultipartUploadAsync(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void upload_PartFailure_ShouldAbortUpload() throws Exception {
+        mockCreate();
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("part failed"))).when(minioAsyncClient)
+                .uploadPartAsync(any(), any(), any(), any(), anyLong(), any(), anyInt(), any(), any());
+        doReturn(CompletableFuture.completedFuture(null)).when(minioAsyncClient)
+                .abortMultipartUploadAsync(eq("bucket"), any(), eq("key"), eq("upload-id"), any(), any());
+
+        CompletableFuture<Void> upload = multipartUploader.upload(
+                "bucket", "key", new ByteArrayInputStream(new byte[10]), 10, "image/png");
+
+        assertThrows(ExecutionException.class, upload::get);
+        verify(minioAsyncClient).abortMultipartUploadAsync(eq("bucket"), any(), eq("key"), eq("upload-id"), any(), any());
+        verify(minioAsyncClient, never()).completeMultipartUploadAsync(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void upload_TruncatedStream_ShouldAbortUpload() throws Exception {
+        mockCreate();
+        UploadPartResponse partResponse = mock(UploadPartResponse.class);
+        doReturn(CompletableFuture.completedFuture(partResponse)).when(minioAsyncClient)
+                .uploadPartAsync(any(), any(), any(), any(), anyLong(), any(), anyInt(), any(), any());
+        doReturn(CompletableFuture.completedFuture(null)).when(minioAsyncClient)
+                .abortMultipartUploadAsync(any(), any(), any(), any(), any(), any());
+
+        CompletableFuture<Void> upload = multipartUploader.upload(
+                "bucket", "key", new ByteArrayInputStream(new byte[6]), 10, "image/png");
+
+        assertThrows(ExecutionException.class, upload::get);
+        verify(minioAsyncClient, times(1)).uploadPartAsync(any(), any(), any(), any(), anyLong(), any(), anyInt(), any(), any());
+        verify(minioAsyncClient).abortMultipartUploadAsync(any(), any(), any(), eq("upload-id"), any(), any());
+    }
+
+    private void mockCreate() throws Exception {
+        InitiateMultipartUploadResult result = mock(InitiateMultipartUploadResult.class);
+        doReturn("upload-id").when(result).uploadId();
+        CreateMultipartUploadResponse response = mock(CreateMultipartUploadResponse.class);
+        doReturn(result).when(response).result();
+        doReturn(CompletableFuture.completedFuture(response)).when(minioAsyncClient)
+                .createMultipartUploadAsync(eq("bucket"), any(), eq("key"), any(), any());
+    }
+}
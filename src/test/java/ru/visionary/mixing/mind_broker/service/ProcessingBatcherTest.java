@@ -0,0 +1,186 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.client.MegamindClient;
+import ru.visionary.mixing.mind_broker.client.dto.BatchProcessedImage;
+import ru.visionary.mixing.mind_broker.client.dto.ImageBatchProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageBatchProcessingResponse;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
+import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
+import ru.visionary.mixing.mind_broker.config.properties.BatchingProperties;
+import ru.visionary.mixing.mind_broker.config.properties.MegamindProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ProcessingProperties;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessingBatcherTest {
+    @Mock
+    private MegamindClient megamindClient;
+    @Mock
+    private MegamindProperties megamindProperties;
+    @Mock
+    private ProcessingProperties processingProperties;
+
+    private ProcessingBatcher processingBatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(megamindProperties.processingTimeout()).thenReturn(30);
+        lenient().when(megamindProperties.apiKey()).thenReturn("test-api-key");
+        when(processingProperties.batching())
+                .thenReturn(new BatchingProperties(true, 2, Duration.ofMillis(100), new BigDecimal("0.1")));
+
+        processingBatcher = new ProcessingBatcher(megamindClient, megamindProperties, processingProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingBatcher.shutdown();
+    }
+
+    @Test
+    void submit_FullBatch_ShouldCallBatchApiAndFanOutResults() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(megamindClient.processBatch(any(), any())).thenReturn(new ImageBatchProcessingResponse(
+                List.of(
+                        new BatchProcessedImage(second.toString(), "second-result".getBytes()),
+                        new BatchProcessedImage(first.toString(), "first-result".getBytes())
+                ),
+                BigDecimal.ONE,
+                "style"
+        ));
+
+        CompletableFuture<ImageProcessingResponse> firstResult = processingBatcher.submit(first, request("style", "0.51"));
+        CompletableFuture<ImageProcessingResponse> secondResult = processingBatcher.submit(second, request("style", "0.49"));
+
+        assertArrayEquals("first-result".getBytes(), firstResult.get(1, TimeUnit.SECONDS).processed_image());
+        assertArrayEquals("second-result".getBytes(), secondResult.get(1, TimeUnit.SECONDS).processed_image());
+
+        ArgumentCaptor<ImageBatchProcessingRequest> captor = ArgumentCaptor.forClass(ImageBatchProcessingRequest.class);
+        verify(megamindClient).processBatch(any(), captor.capture());
+        assertEquals("style", captor.getValue().style());
+        assertEquals(2, captor.getValue().images().size());
+        assertEquals(new BigDecimal("0.51"), captor.getValue().images().get(0).strength());
+        verify(megamindClient, never()).process(any(), any());
+    }
+
+    @Test
+    void submit_DifferentStyles_ShouldNotShareBatch() throws Exception {
+        when(megamindClient.process(any(), any()))
+                .thenReturn(new ImageProcessingResponse("result".getBytes(), BigDecimal.ONE, "style"));
+
+        CompletableFuture<ImageProcessingResponse> first = processingBatcher.submit(UUID.randomUUID(), request("first", "0.5"));
+        CompletableFuture<ImageProcessingResponse> second = processingBatcher.submit(UUID.randomUUID(), request("second", "0.5"));
+
+        assertNotNull(first.get(1, TimeUnit.SECONDS));
+        assertNotNull(second.get(1, TimeUnit.SECONDS));
+        verify(megamindClient, times(2)).process(any(), any());
+        verify(megamindClient, never()).processBatch(any(), any());
+    }
+
+    @Test
+    void submit_WindowElapsed_ShouldSendPartialBatch() throws Exception {
+        when(megamindClient.process(any(), any()))
+                .thenReturn(new ImageProcessingResponse("result".getBytes(), BigDecimal.ONE, "style"));
+
+        CompletableFuture<ImageProcessingResponse> result = processingBatcher.submit(UUID.randomUUID(), request("style", "0.5"));
+
+        assertArrayEquals("result".getBytes(), result.get(1, TimeUnit.SECONDS).processed_image());
+    }
+
+    @Test
+    void submit_BatchFailure_ShouldFailEveryImage() {
+        when(megamindClient.processBatch(any(), any())).thenThrow(new ServiceException(ErrorCode.MEGAMIND_ERROR));
+
+        CompletableFuture<ImageProcessingResponse> first = processingBatcher.submit(UUID.randomUUID(), request("style", "0.5"));
+        CompletableFuture<ImageProcessingResponse> second = processingBatcher.submit(UUID.randomUUID(), request("style", "0.5"));
+
+        for (CompletableFuture<ImageProcessingResponse> result : List.of(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(ServiceException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    void submit_MissingResultInBatch_ShouldFailOnlyThatImage() throws Exception {
+        UUID first = UUID.randomUUID();
+        when(megamindClient.processBatch(any(), any())).thenReturn(new ImageBatchProcessingResponse(
+                List.of(new BatchProcessedImage(first.toString(), "first-result".getBytes())),
+                BigDecimal.ONE,
+                "style"
+        ));
+
+        CompletableFuture<ImageProcessingResponse> firstResult = processingBatcher.submit(first, request("style", "0.5"));
+        CompletableFuture<ImageProcessingResponse> secondResult = processingBatcher.submit(UUID.randomUUID(), request("style", "0.5"));
+
+        assertNotNull(firstResult.get(1, TimeUnit.SECONDS));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> secondResult.get(1, TimeUnit.SECONDS));
+        assertEquals(ErrorCode.MEGAMIND_ERROR, ((ServiceException) exception.getCause()).getErrorCode());
+    }
+
+    @Test
+    void submit_DuplicateResultInBatch_ShouldUseFirstResult() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(megamindClient.processBatch(any(), any())).thenReturn(new ImageBatchProcessingResponse(
+                List.of(
+                        new BatchProcessedImage(first.toString(), "first-result".getBytes()),
+                        new BatchProcessedImage(first.toString(), "duplicate".getBytes()),
+                        new BatchProcessedImage(second.toString(), "second-result".getBytes())
+                ),
+                BigDecimal.ONE,
+                "style"
+        ));
+
+        CompletableFuture<ImageProcessingResponse> firstResult = processingBatcher.submit(first, request("style", "0.5"));
+        CompletableFuture<ImageProcessingResponse> secondResult = processingBatcher.submit(second, request("style", "0.5"));
+
+        assertArrayEquals("first-result".getBytes(), firstResult.get(1, TimeUnit.SECONDS).processed_image());
+        assertArrayEquals("second-result".getBytes(), secondResult.get(1, TimeUnit.SECONDS).processed_image());
+    }
+
+    @Test
+    void shutdown_OpenBatch_ShouldBeFlushed() throws Exception {
+        when(megamindClient.process(any(), any()))
+                .thenReturn(new ImageProcessingResponse("result".getBytes(), BigDecimal.ONE, "style"));
+
+        CompletableFuture<ImageProcessingResponse> result = processingBatcher.submit(UUID.randomUUID(), request("style", "0.5"));
+        processingBatcher.shutdown();
+
+        assertTrue(result.isDone());
+        assertArrayEquals("result".getBytes(), result.get().processed_image());
+    }
+
+    @Test
+    void submit_AfterShutdown_ShouldFail() {
+        processingBatcher.shutdown();
+
+        assertThrows(RejectedExecutionException.class,
+                () -> processingBatcher.submit(UUID.randomUUID(), request("style", "0.5")));
+    }
+
+    private ImageProcessingRequest request(String style, String strength) {
+        return new ImageProcessingRequest("image".getBytes(), style, new BigDecimal(strength), "test-api-key");
+    }
+}
@@ -1,5 +1,6 @@
 package ru.visionary.mixing.mind_broker.service;
 
+import org.apache.commons.logging.LogFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,9 +8,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.listener.support.ContainerUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import ru.visionary.mixing.mind_broker.client.MegamindAsyncClient;
 import ru.visionary.mixing.mind_broker.client.MegamindClient;
 import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingRequest;
 import ru.visionary.mixing.mind_broker.client.dto.ImageProcessingResponse;
+import ru.visionary.mixing.mind_broker.config.properties.BatchingProperties;
+import ru.visionary.mixing.mind_broker.config.properties.MegamindAsyncProperties;
 import ru.visionary.mixing.mind_broker.config.properties.MegamindProperties;
 import ru.visionary.mixing.mind_broker.config.properties.ProcessingProperties;
 import ru.visionary.mixing.mind_broker.entity.ProcessingMessage;
@@ -21,10 +28,17 @@ import ru.visionary.mixing.mind_broker.repository.ProcessingRepository;
 import ru.visionary.mixing.mind_broker.websocket.ProcessingWebSocketHandler;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -40,7 +54,13 @@ class ProcessingListenerTest {
     @Mock
     private MegamindClient megamindClient;
     @Mock
+    private MegamindAsyncClient megamindAsyncClient;
+    @Mock
+    private ProcessingBatcher processingBatcher;
+    @Mock
     private ProcessingWebSocketHandler processingWebSocketHandler;
+    @Mock
+    private MinioService minioService;
 
     @InjectMocks
     private ProcessingListener processingListener;
@@ -52,35 +72,40 @@ class ProcessingListenerTest {
     void setUp() {
         testMessage = new ProcessingMessage(
                 testUuid,
-                "base64Image",
+                "image".getBytes(),
                 "test-style",
-                BigDecimal.valueOf(0.5)
+                BigDecimal.valueOf(0.5),
+                null
         );
 
         lenient().when(processingProperties.maxTimeFromStart()).thenReturn(java.time.Duration.ofMinutes(10));
+        lenient().when(processingProperties.batching()).thenReturn(new BatchingProperties(false, 1, Duration.ZERO, null));
         lenient().when(megamindProperties.processingTimeout()).thenReturn(30);
         lenient().when(megamindProperties.apiKey()).thenReturn("test-api-key");
+        lenient().when(megamindProperties.async()).thenReturn(new MegamindAsyncProperties(false, null, 1));
     }
 
     @Test
     void processImage_SuccessfulProcessing_ShouldUpdateStatusAndSendResult() throws Exception {
         LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
+        byte[] processedImage = "processed-image".getBytes();
         ImageProcessingResponse mockResponse = new ImageProcessingResponse(
-                "processed-image",
+                processedImage,
                 BigDecimal.valueOf(2.5),
                 "test-style"
         );
 
         when(processingRepository.getStartTimeById(testUuid)).thenReturn(startTime);
         when(megamindClient.process(any(), any())).thenReturn(mockResponse);
+        when(minioService.uploadResult(processedImage, "image/jpeg", testUuid)).thenReturn(testUuid.toString());
 
         processingListener.processImage(testMessage);
 
         verify(processingRepository).updateStatus(testUuid, ProcessingStatus.PROCESSING);
-        verify(processingRepository).updateStatus(testUuid, ProcessingStatus.COMPLETED);
+        verify(processingRepository).completeWithResult(testUuid, testUuid.toString());
         verify(processingWebSocketHandler).sendResult(
                 new ProcessingResultMessage(
-                        "processed-image",
+                        "/api/v1/processing/" + testUuid + "/result",
                         ProcessingStatus.COMPLETED,
                         null,
                         null
@@ -90,6 +115,21 @@ class ProcessingListenerTest {
         );
     }
 
+    @Test
+    void processImage_ResultUploadFailure_ShouldUpdateStatusToFailed() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
+        when(processingRepository.getStartTimeById(testUuid)).thenReturn(startTime);
+        when(megamindClient.process(any(), any()))
+                .thenReturn(new ImageProcessingResponse("processed".getBytes(), BigDecimal.ONE, "test-style"));
+        when(minioService.uploadResult(any(), any(), eq(testUuid)))
+                .thenThrow(new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO));
+
+        processingListener.processImage(testMessage);
+
+        verify(processingRepository, never()).completeWithResult(any(), any());
+        verify(processingRepository).updateStatus(testUuid, ProcessingStatus.FAILED);
+    }
+
     @Test
     void processImage_MegamindError_ShouldUpdateStatusToFailed() {
         LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
@@ -173,9 +213,112 @@ class ProcessingListenerTest {
         );
 
         ImageProcessingRequest actualRequest = requestCaptor.getValue();
-        assertEquals("base64Image", actualRequest.image());
+        assertArrayEquals("image".getBytes(), actualRequest.image());
         assertEquals("test-style", actualRequest.style());
         assertEquals(BigDecimal.valueOf(0.5), actualRequest.strength());
         assertEquals("test-api-key", actualRequest.api_key());
     }
-}
\ No newline at end of file
+
+    @Test
+    void processImage_StagedImage_ShouldFetchImageFromMinio() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
+        when(processingRepository.getStartTimeById(testUuid)).thenReturn(startTime);
+        when(minioService.getStagedImage("staged-key")).thenReturn("staged".getBytes());
+
+        ArgumentCaptor<ImageProcessingRequest> requestCaptor =
+                ArgumentCaptor.forClass(ImageProcessingRequest.class);
+
+        processingListener.processImage(new ProcessingMessage(testUuid, null, "test-style", null, "staged-key"));
+
+        verify(megamindClient).process(any(), requestCaptor.capture());
+        assertArrayEquals("staged".getBytes(), requestCaptor.getValue().image());
+    }
+
+    @Test
+    void processImage_AsyncMode_ShouldCompleteWhenFutureCompletes() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
+        byte[] processedImage = "processed-image".getBytes();
+        CompletableFuture<ImageProcessingResponse> response = new CompletableFuture<>();
+
+        when(megamindProperties.async()).thenReturn(new MegamindAsyncProperties(true, "http://megamind", 4));
+        when(processingRepository.getStartTimeById(testUuid)).thenReturn(startTime);
+        when(megamindAsyncClient.process(any(), eq(Duration.ofSeconds(30)))).thenReturn(response);
+        when(minioService.uploadResult(processedImage, "image/jpeg", testUuid)).thenReturn(testUuid.toString());
+
+        CompletableFuture<Void> result = processingListener.processImage(testMessage);
+
+        assertFalse(result.isDone());
+        verify(processingRepository, never()).completeWithResult(any(), any());
+
+        response.complete(new ImageProcessingResponse(processedImage, BigDecimal.ONE, "test-style"));
+
+        assertTrue(result.isDone());
+        verify(processingRepository).completeWithResult(testUuid, testUuid.toString());
+        verify(megamindClient, never()).process(any(), any());
+    }
+
+    @Test
+    void processImage_AsyncModeFailure_ShouldUpdateStatusToFailed() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
+
+        when(megamindProperties.async()).thenReturn(new MegamindAsyncProperties(true, "http://megamind", 4));
+        when(processingRepository.getStartTimeById(testUuid)).thenReturn(startTime);
+        when(megamindAsyncClient.process(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceException(ErrorCode.MEGAMIND_ERROR)));
+
+        CompletableFuture<Void> result = processingListener.processImage(testMessage);
+
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        verify(processingRepository).updateStatus(testUuid, ProcessingStatus.FAILED);
+        verify(processingWebSocketHandler).sendResult(
+                argThat(message -> message.processingStatus() == ProcessingStatus.FAILED &&
+                        message.errorCode() == ErrorCode.MEGAMIND_ERROR.getErrorCode()),
+                eq(testUuid),
+                eq(true)
+        );
+    }
+
+    @Test
+    void processImage_BatchingEnabled_ShouldSubmitToBatcher() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(1);
+        byte[] processedImage = "processed-image".getBytes();
+
+        when(processingProperties.batching()).thenReturn(new BatchingProperties(true, 8, Duration.ofMillis(500), null));
+        when(processingRepository.getStartTimeById(testUuid)).thenReturn(startTime);
+        when(processingBatcher.submit(eq(testUuid), any())).thenReturn(CompletableFuture.completedFuture(
+                new ImageProcessingResponse(processedImage, BigDecimal.ONE, "test-style")
+        ));
+        when(minioService.uploadResult(processedImage, "image/jpeg", testUuid)).thenReturn(testUuid.toString());
+
+        processingListener.processImage(testMessage);
+
+        verify(processingRepository).completeWithResult(testUuid, testUuid.toString());
+        verify(megamindClient, never()).process(any(), any());
+        verify(megamindAsyncClient, never()).process(any(), any());
+    }
+
+    @Test
+    void processImage_SynchronousFailure_ShouldCompleteSoMessageIsAcked() {
+        when(processingRepository.getStartTimeById(testUuid)).thenThrow(new EmptyResultDataAccessException(1));
+
+        CompletableFuture<Void> result = processingListener.processImage(testMessage);
+
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        verify(processingRepository).updateStatus(testUuid, ProcessingStatus.FAILED);
+    }
+
+    @Test
+    void processImage_FailureNotRecorded_ShouldRejectWithoutRequeue() {
+        when(processingRepository.getStartTimeById(testUuid)).thenThrow(new DataAccessResourceFailureException("down"));
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(processingRepository).updateStatus(testUuid, ProcessingStatus.FAILED);
+
+        CompletableFuture<Void> result = processingListener.processImage(testMessage);
+
+        assertTrue(result.isCompletedExceptionally());
+        Throwable cause = assertThrows(CompletionException.class, result::join);
+        assertFalse(ContainerUtils.shouldRequeue(true, cause, LogFactory.getLog(getClass())));
+    }
+}
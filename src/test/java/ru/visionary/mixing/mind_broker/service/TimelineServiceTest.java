@@ -0,0 +1,106 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.config.properties.TimelineProperties;
+import ru.visionary.mixing.mind_broker.entity.FeedCursor;
+import ru.visionary.mixing.mind_broker.entity.FeedSortType;
+import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.repository.FeedRepository;
+import ru.visionary.mixing.mind_broker.repository.TimelineRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+    @Mock
+    private TimelineRepository timelineRepository;
+    @Mock
+    private FeedRepository feedRepository;
+
+    @Test
+    void publish_RegularAuthor_FansOutToFollowers() {
+        UUID imageId = UUID.randomUUID();
+        when(timelineRepository.countFollowers(1L)).thenReturn(10L);
+
+        service(true).publish(imageId, 1L);
+
+        verify(timelineRepository).markFannedOut(imageId, true);
+        verify(timelineRepository).fanOut(imageId);
+        verify(timelineRepository).trimFollowers(1L, 50);
+    }
+
+    @Test
+    void publish_HighFollowerAuthor_LeavesImageForReadTime() {
+        UUID imageId = UUID.randomUUID();
+        when(timelineRepository.countFollowers(1L)).thenReturn(100L);
+
+        service(true).publish(imageId, 1L);
+
+        verify(timelineRepository).markFannedOut(imageId, false);
+        verify(timelineRepository, never()).fanOut(any());
+    }
+
+    @Test
+    void follow_BackfillsUpToCapacityAndTrims() {
+        when(timelineRepository.addAuthor(1L, 2L, 50)).thenReturn(3);
+
+        service(true).follow(1L, 2L);
+
+        verify(timelineRepository).trim(1L, 50);
+    }
+
+    @Test
+    void getTimeline_FullPage_DoesNotQueryFollows() {
+        FeedCursor cursor = FeedCursor.first(FeedSortType.FOLLOW);
+        List<Image> images = List.of(image(), image());
+        when(feedRepository.getFeedByTimeline(1L, cursor, 2)).thenReturn(images);
+
+        assertEquals(images, service(true).getTimeline(1L, cursor, 2));
+
+        verify(feedRepository, never()).getFeedByFollow(anyLong(), any(FeedCursor.class), anyInt());
+    }
+
+    @Test
+    void getTimeline_TimelineExhausted_FallsBackToFollows() {
+        FeedCursor cursor = FeedCursor.first(FeedSortType.FOLLOW);
+        Image last = image();
+        Image older = image();
+        when(feedRepository.getFeedByTimeline(1L, cursor, 3)).thenReturn(List.of(last));
+        when(feedRepository.getFeedByFollow(1L, FeedCursor.after(FeedSortType.FOLLOW, last), 2))
+                .thenReturn(List.of(older));
+
+        assertEquals(List.of(last, older), service(true).getTimeline(1L, cursor, 3));
+    }
+
+    @Test
+    void disabled_DoesNotTouchTimelines() {
+        TimelineService timelineService = service(false);
+
+        timelineService.publish(UUID.randomUUID(), 1L);
+        timelineService.retract(UUID.randomUUID());
+        timelineService.follow(1L, 2L);
+        timelineService.unfollow(1L, 2L);
+
+        verifyNoInteractions(timelineRepository);
+    }
+
+    private Image image() {
+        return Image.builder()
+                .id(UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private TimelineService service(boolean enabled) {
+        return new TimelineService(timelineRepository, feedRepository, new TimelineProperties(enabled, 50, 100));
+    }
+}
@@ -0,0 +1,78 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.visionary.mixing.mind_broker.config.properties.TrendingProperties;
+import ru.visionary.mixing.mind_broker.repository.TrendingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+    @Mock
+    private TrendingRepository trendingRepository;
+
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        TrendingProperties properties = new TrendingProperties(Duration.ofHours(1), 1.0, 2.0, 3, 0.01, Duration.ofMinutes(1), "-");
+        trendingService = new TrendingService(trendingRepository, properties);
+    }
+
+    @Test
+    void updateScores_ShouldAddEventsSinceWatermarkWithHalfLifeDecay() {
+        LocalDateTime dbNow = LocalDateTime.of(2026, 10, 18, 12, 0);
+        LocalDateTime watermark = dbNow.minusMinutes(5);
+        LocalDateTime settled = dbNow.minusMinutes(1);
+        when(trendingRepository.lockWatermark()).thenReturn(watermark);
+        when(trendingRepository.currentTimestamp()).thenReturn(dbNow);
+
+        trendingService.updateScores();
+
+        double decayRate = Math.log(2) / 3600;
+        verify(trendingRepository).decayScores(settled, decayRate);
+        verify(trendingRepository).addEvents(watermark, settled, decayRate, 1.0, 2.0);
+        verify(trendingRepository).deleteBelow(0.01);
+        verify(trendingRepository).updateWatermark(settled);
+    }
+
+    @Test
+    void updateScores_WatermarkWithinCommitLag_ShouldSkip() {
+        LocalDateTime dbNow = LocalDateTime.of(2026, 10, 18, 12, 0);
+        when(trendingRepository.lockWatermark()).thenReturn(dbNow.minusSeconds(30));
+        when(trendingRepository.currentTimestamp()).thenReturn(dbNow);
+
+        trendingService.updateScores();
+
+        verify(trendingRepository, never()).addEvents(any(), any(), anyDouble(), anyDouble(), anyDouble());
+        verify(trendingRepository, never()).updateWatermark(any());
+    }
+
+    @Test
+    void refreshSnapshot_ShouldServePagesInScoreOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(trendingRepository.findTop(3)).thenReturn(List.of(first, second, third));
+
+        trendingService.refreshSnapshot();
+
+        assertEquals(List.of(first, second), trendingService.page(0, 2));
+        assertEquals(List.of(third), trendingService.page(trendingService.offsetAfter(second), 2));
+        assertTrue(trendingService.page(3, 2).isEmpty());
+        assertTrue(trendingService.hasMore(2));
+        assertFalse(trendingService.hasMore(3));
+        assertEquals(0, trendingService.offsetAfter(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,271 @@
+package ru.visionary.mixing.mind_broker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import ru.visionary.mixing.generated.model.UploadResponse;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageValidationProperties;
+import ru.visionary.mixing.mind_broker.config.properties.UploadProperties;
+import ru.visionary.mixing.mind_broker.entity.Image;
+import ru.visionary.mixing.mind_broker.entity.ImageContent;
+import ru.visionary.mixing.mind_broker.entity.Protection;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
+import ru.visionary.mixing.mind_broker.entity.Upload;
+import ru.visionary.mixing.mind_broker.entity.UploadTarget;
+import ru.visionary.mixing.mind_broker.entity.User;
+import ru.visionary.mixing.mind_broker.exception.ErrorCode;
+import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.repository.UploadRepository;
+import ru.visionary.mixing.mind_broker.repository.UserRepository;
+import ru.visionary.mixing.mind_broker.service.encoder.ImageEncoders;
+import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadServiceTest {
+    @Mock
+    private UploadRepository uploadRepository;
+    @Mock
+    private ImageService imageService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private MinioService minioService;
+    @Mock
+    private ObjectDeletionService objectDeletionService;
+    @Mock
+    private ImageContentService imageContentService;
+    @Spy
+    private ImagePipeline imagePipeline = new ImagePipeline(
+            new ImageProperties(new ImageValidationProperties(12000, 12000, 100_000_000), null, null, null),
+            mock(CompressionExecutor.class),
+            mock(ImageEncoders.class)
+    );
+    @Spy
+    private UploadProperties uploadProperties = new UploadProperties(
+            Duration.ofMinutes(15), DataSize.ofMegabytes(1), 100, "-"
+    );
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private UploadService uploadService;
+
+    private final User user = User.builder().id(1L).active(true).build();
+    private MockedStatic<SecurityContextUtils> securityContext;
+
+    @BeforeEach
+    void setUp() {
+        securityContext = mockStatic(SecurityContextUtils.class);
+        securityContext.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        securityContext.close();
+    }
+
+    @Test
+    void createImageUpload_InvalidProtection_ThrowsException() {
+        ServiceException ex = assertThrows(ServiceException.class, () -> uploadService.createImageUpload("shared"));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, ex.getErrorCode());
+        verifyNoInteractions(uploadRepository, minioService);
+    }
+
+    @Test
+    void createImageUpload_ShouldReserveUuidAndPresignUrl() {
+        when(minioService.presignUpload(any(), eq(Duration.ofMinutes(15)))).thenReturn("http://minio/uploads/key");
+
+        UploadResponse response = uploadService.createImageUpload("private");
+
+        assertEquals("http://minio/uploads/key", response.getUploadUrl());
+        verify(uploadRepository).save(argThat(upload -> upload.id().equals(response.getUuid())
+                && upload.target() == UploadTarget.IMAGE
+                && upload.protection() == Protection.PRIVATE
+                && upload.owner().id().equals(1L)));
+    }
+
+    @Test
+    void completeImageUpload_ForeignUpload_ThrowsNotFound() {
+        UUID uuid = UUID.randomUUID();
+        when(uploadRepository.findById(uuid)).thenReturn(upload(uuid, 2L, UploadTarget.IMAGE));
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> uploadService.completeImageUpload(uuid));
+
+        assertEquals(ErrorCode.UPLOAD_NOT_FOUND, ex.getErrorCode());
+        verify(uploadRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void completeImageUpload_FileNotUploaded_ThrowsNotFound() {
+        UUID uuid = UUID.randomUUID();
+        when(uploadRepository.findById(uuid)).thenReturn(upload(uuid, 1L, UploadTarget.IMAGE));
+        when(minioService.statUpload(uuid)).thenThrow(new ServiceException(ErrorCode.FILE_NOT_FOUND));
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> uploadService.completeImageUpload(uuid));
+
+        assertEquals(ErrorCode.UPLOAD_NOT_FOUND, ex.getErrorCode());
+        verify(uploadRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void completeImageUpload_TooLarge_DeletesUploadedObject() {
+        UUID uuid = UUID.randomUUID();
+        when(uploadRepository.findById(uuid)).thenReturn(upload(uuid, 1L, UploadTarget.IMAGE));
+        when(minioService.statUpload(uuid))
+                .thenReturn(new StoredObjectInfo("uploads", uuid.toString(), 2 * 1024 * 1024, "image/png", "etag"));
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> uploadService.completeImageUpload(uuid));
+
+        assertEquals(ErrorCode.FILE_TOO_LARGE, ex.getErrorCode());
+        verify(minioService).deleteUpload(uuid);
+        verify(imageService, never()).createImage(any());
+    }
+
+    @Test
+    void completeImageUpload_ValidImage_SavesImageUnderReservedUuid() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        mockUploadedPng(uuid, UploadTarget.IMAGE);
+        when(imageContentService.register(uuid, sha256(png()), List.of()))
+                .thenReturn(new ImageContent(uuid, "hash", 1, List.of()));
+
+        assertEquals(uuid, uploadService.completeImageUpload(uuid).getUuid());
+
+        verify(imageService).createImage(argThat((Image image) -> image.id().equals(uuid)
+                && image.protection() == Protection.PUBLIC
+                && image.renditions().isEmpty()));
+        verify(minioService).moveUploadToImages(uuid);
+    }
+
+    @Test
+    void completeImageUpload_InvalidImage_SchedulesUploadDeletion() {
+        UUID uuid = UUID.randomUUID();
+        StoredObjectInfo object = new StoredObjectInfo("uploads", uuid.toString(), 100, "image/png", "etag");
+        when(uploadRepository.findById(uuid)).thenReturn(upload(uuid, 1L, UploadTarget.IMAGE));
+        when(uploadRepository.deleteById(uuid)).thenReturn(1);
+        when(minioService.statUpload(uuid)).thenReturn(object);
+        when(minioService.openObject(object, 0, null)).thenAnswer(invocation -> new ByteArrayInputStream(new byte[100]));
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> uploadService.completeImageUpload(uuid));
+
+        assertEquals(ErrorCode.FILE_FORMAT_NOT_SUPPORTED, ex.getErrorCode());
+        verify(objectDeletionService).deleteUpload(uuid);
+        verifyNoInteractions(imageService, imageContentService);
+    }
+
+    @Test
+    void completeImageUpload_DuplicateContent_ReusesStoredObject() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        UUID stored = UUID.randomUUID();
+        mockUploadedPng(uuid, UploadTarget.IMAGE);
+        when(imageContentService.acquire(sha256(png()))).thenReturn(new ImageContent(stored, "hash", 2, List.of(128)));
+
+        assertEquals(uuid, uploadService.completeImageUpload(uuid).getUuid());
+
+        verify(imageService).createImage(argThat((Image image) -> image.id().equals(uuid)
+                && image.content().equals(stored)
+                && image.renditions().equals(List.of(128))));
+        verify(minioService, never()).moveUploadToImages(any());
+        verify(objectDeletionService).deleteUpload(uuid);
+    }
+
+    @Test
+    void completeAvatarUpload_ValidImage_ReplacesOldAvatar() throws Exception {
+        UUID oldAvatar = UUID.randomUUID();
+        securityContext.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(User.builder()
+                .id(1L)
+                .active(true)
+                .avatar(oldAvatar)
+                .avatarRenditions(List.of(128))
+                .build());
+        UUID uuid = UUID.randomUUID();
+        mockUploadedPng(uuid, UploadTarget.AVATAR);
+
+        uploadService.completeAvatarUpload(uuid);
+
+        verify(userRepository).updateUser(eq(1L), isNull(), isNull(), isNull(), eq(uuid), eq(List.of()));
+        verify(minioService).moveUploadToAvatars(uuid);
+        verify(objectDeletionService).deleteAvatar(oldAvatar, List.of(128));
+    }
+
+    @Test
+    void completeAvatarUpload_RenditionUploadFails_SchedulesObjectsDeletion() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        mockUploadedPng(uuid, UploadTarget.AVATAR);
+        doThrow(new ServiceException(ErrorCode.FAILED_UPLOAD_MINIO)).when(minioService).uploadAvatarRenditions(any(), eq(uuid));
+
+        assertThrows(ServiceException.class, () -> uploadService.completeAvatarUpload(uuid));
+
+        verify(objectDeletionService).deleteAvatar(uuid, List.of());
+        verify(objectDeletionService).deleteUpload(uuid);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void completeAvatarUpload_UpdateFails_SchedulesNewAvatarDeletion() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        mockUploadedPng(uuid, UploadTarget.AVATAR);
+        doThrow(new RuntimeException("db")).when(userRepository)
+                .updateUser(eq(1L), isNull(), isNull(), isNull(), eq(uuid), any());
+
+        assertThrows(RuntimeException.class, () -> uploadService.completeAvatarUpload(uuid));
+
+        verify(objectDeletionService).deleteAvatar(uuid, List.of());
+        verify(objectDeletionService, never()).deleteUpload(any());
+    }
+
+    private void mockUploadedPng(UUID uuid, UploadTarget target) throws IOException {
+        byte[] png = png();
+        StoredObjectInfo object = new StoredObjectInfo("uploads", uuid.toString(), png.length, "image/png", "etag");
+        when(uploadRepository.findById(uuid)).thenReturn(upload(uuid, 1L, target));
+        when(uploadRepository.deleteById(uuid)).thenReturn(1);
+        when(minioService.statUpload(uuid)).thenReturn(object);
+        when(minioService.openObject(object, 0, null)).thenAnswer(invocation -> new ByteArrayInputStream(png));
+    }
+
+    private Upload upload(UUID uuid, long owner, UploadTarget target) {
+        return Upload.builder()
+                .id(uuid)
+                .owner(User.builder().id(owner).build())
+                .target(target)
+                .protection(target == UploadTarget.IMAGE ? Protection.PUBLIC : null)
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build();
+    }
+
+    private String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private byte[] png() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB), "png", os);
+        return os.toByteArray();
+    }
+}
@@ -10,15 +10,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ru.visionary.mixing.generated.model.UserResponse;
+import ru.visionary.mixing.mind_broker.config.properties.ImageProperties;
+import ru.visionary.mixing.mind_broker.config.properties.ImageValidationProperties;
+import ru.visionary.mixing.mind_broker.entity.StoredObjectInfo;
 import ru.visionary.mixing.mind_broker.entity.User;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
+import ru.visionary.mixing.mind_broker.service.encoder.ImageEncoders;
 import ru.visionary.mixing.mind_broker.repository.LikeRepository;
 import ru.visionary.mixing.mind_broker.repository.RefreshTokenRepository;
 import ru.visionary.mixing.mind_broker.repository.UserRepository;
 import ru.visionary.mixing.mind_broker.service.mapper.UserMapperImpl;
 import ru.visionary.mixing.mind_broker.utils.SecurityContextUtils;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,9 +41,19 @@ class UserServiceTest {
     @Mock
     private MinioService minioService;
     @Mock
+    private ObjectDeletionService objectDeletionService;
+    @Mock
+    private DownloadService downloadService;
+    @Mock
     private PasswordEncoder passwordEncoder;
     @Spy
     private UserMapperImpl userMapper;
+    @Spy
+    private ImagePipeline imagePipeline = new ImagePipeline(
+            new ImageProperties(new ImageValidationProperties(12000, 12000, 100_000_000), null, null, null),
+            mock(CompressionExecutor.class),
+            mock(ImageEncoders.class)
+    );
 
     @InjectMocks
     private UserService userService;
@@ -120,7 +135,7 @@ class UserServiceTest {
             userService.updateUser(2L, "nick", "desc", "newpass", null);
         }
 
-        verify(userRepository).updateUser(eq(2L), eq("nick"), eq("desc"), eq("encoded"), any());
+        verify(userRepository).updateUser(eq(2L), eq("nick"), eq("desc"), eq("encoded"), any(), any());
     }
 
     @Test
@@ -136,8 +151,8 @@ class UserServiceTest {
 
             userService.updateCurrentUser(null, null, null, null);
 
-            verify(userRepository).updateUser(eq(1L), isNull(), isNull(), isNull(), isNull());
-            verify(minioService, never()).deleteAvatar(any());
+            verify(userRepository).updateUser(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull());
+            verify(objectDeletionService, never()).deleteAvatar(any(), any());
         }
     }
 
@@ -186,7 +201,6 @@ class UserServiceTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(user);
-        doNothing().when(minioService).deleteAvatar(any());
 
         try (MockedStatic<SecurityContextUtils> utils = mockStatic(SecurityContextUtils.class)) {
             utils.when(SecurityContextUtils::getAuthenticatedUser).thenReturn(user);
@@ -194,7 +208,7 @@ class UserServiceTest {
             userService.deleteAvatar(1L);
         }
 
-        verify(minioService).deleteAvatar(oldAvatar);
+        verify(objectDeletionService).deleteAvatar(eq(oldAvatar), any());
         verify(userRepository).deleteAvatar(1L);
     }
 
@@ -213,7 +227,7 @@ class UserServiceTest {
             userService.deleteCurrentAvatar();
 
             verify(userRepository).deleteAvatar(1L);
-            verify(minioService).deleteAvatar(oldAvatar);
+            verify(objectDeletionService).deleteAvatar(eq(oldAvatar), any());
         }
     }
 
@@ -231,7 +245,7 @@ class UserServiceTest {
             userService.deleteCurrentAvatar();
 
             verify(userRepository, never()).deleteAvatar(anyLong());
-            verify(minioService, never()).deleteAvatar(any());
+            verify(objectDeletionService, never()).deleteAvatar(any(), any());
         }
     }
 
@@ -257,7 +271,7 @@ class UserServiceTest {
             userService.updateUser(2L, "newnick", "newdesc", "newpass", null);
         }
 
-        verify(userRepository).updateUser(eq(2L), eq("newnick"), eq("newdesc"), eq("encoded"), isNull());
+        verify(userRepository).updateUser(eq(2L), eq("newnick"), eq("newdesc"), eq("encoded"), isNull(), isNull());
     }
 
     @Test
@@ -288,6 +302,34 @@ class UserServiceTest {
             assertDoesNotThrow(() -> userService.deleteAvatar(1L));
         }
 
-        verify(minioService, never()).deleteAvatar(any());
+        verify(objectDeletionService, never()).deleteAvatar(any(), any());
+    }
+
+    @Test
+    void downloadAvatar_WithoutAvatar_ThrowsNotFound() {
+        when(userRepository.findById(1L)).thenReturn(User.builder().id(1L).active(true).build());
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> userService.downloadAvatar(1L, null, null, null));
+
+        assertEquals(ErrorCode.FILE_NOT_FOUND, ex.getErrorCode());
+        verifyNoInteractions(minioService, downloadService);
+    }
+
+    @Test
+    void downloadAvatar_Rendition_StatsDerivedKey() {
+        UUID avatar = UUID.randomUUID();
+        when(userRepository.findById(1L)).thenReturn(User.builder()
+                .id(1L)
+                .active(true)
+                .avatar(avatar)
+                .avatarRenditions(List.of(128))
+                .build());
+        StoredObjectInfo object = new StoredObjectInfo("avatars", avatar + "/128", 10, "image/webp", "etag");
+        when(minioService.statAvatar(avatar + "/128")).thenReturn(object);
+
+        userService.downloadAvatar(1L, 128, null, null);
+
+        verify(downloadService).download(eq(object), any(), isNull(), isNull());
     }
-}
\ No newline at end of file
+}
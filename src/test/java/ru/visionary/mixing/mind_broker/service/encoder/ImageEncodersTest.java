@@ -0,0 +1,48 @@
+package ru.visionary.mixing.mind_broker.service.encoder;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageEncodersTest {
+    private final ImageEncoders imageEncoders = new ImageEncoders();
+
+    @Test
+    void get_UnknownFormat_ShouldFallBackToJpeg() {
+        assertEquals("jpeg", imageEncoders.get("bmp-x").format());
+        assertEquals("jpeg", imageEncoders.get(null).format());
+    }
+
+    @Test
+    void get_WebP_ShouldReturnWebpEncoder() {
+        assertEquals("image/webp", imageEncoders.get("WEBP").contentType());
+    }
+
+    @Test
+    void encode_JpegWithAlpha_ShouldFlattenImage() throws Exception {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+
+        byte[] encoded = imageEncoders.get("jpeg").encode(image, 0.8);
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded));
+        assertEquals(10, decoded.getWidth());
+        assertFalse(decoded.getColorModel().hasAlpha());
+    }
+
+    @Test
+    void encode_LowerQuality_ShouldNotBeLarger() throws Exception {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                image.setRGB(x, y, x * 4 << 16 | y * 4 << 8 | (x ^ y));
+            }
+        }
+        ImageEncoder encoder = imageEncoders.get("jpeg");
+
+        assertTrue(encoder.encode(image, 0.3).length <= encoder.encode(image, 0.9).length);
+    }
+}
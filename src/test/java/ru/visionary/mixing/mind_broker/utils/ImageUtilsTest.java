@@ -4,14 +4,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import ru.visionary.mixing.mind_broker.config.properties.ImageValidationProperties;
+import ru.visionary.mixing.mind_broker.entity.ImageHeader;
 import ru.visionary.mixing.mind_broker.exception.ErrorCode;
 import ru.visionary.mixing.mind_broker.exception.ServiceException;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
 class ImageUtilsTest {
+    private static final ImageValidationProperties LIMITS = new ImageValidationProperties(1000, 1000, 500_000);
+
     @Test
     void checkImage_InvalidPng_ThrowsException() {
         MockMultipartFile file = new MockMultipartFile(
@@ -22,7 +32,7 @@ class ImageUtilsTest {
         );
 
         ServiceException ex = assertThrows(ServiceException.class,
-                () -> ImageUtils.checkImage(file));
+                () -> ImageUtils.checkImage(file, LIMITS));
 
         assertEquals(ErrorCode.FILE_FORMAT_NOT_SUPPORTED, ex.getErrorCode());
     }
@@ -35,8 +45,84 @@ class ImageUtilsTest {
         );
 
         ServiceException ex = assertThrows(ServiceException.class,
-                () -> ImageUtils.checkImage(file));
+                () -> ImageUtils.checkImage(file, LIMITS));
 
         assertEquals(ErrorCode.EMPTY_FILE, ex.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkImage_ValidPng_ReturnsHeader() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(300, 200));
+
+        ImageHeader header = ImageUtils.checkImage(file, LIMITS);
+
+        assertEquals("png", header.format());
+        assertEquals(300, header.width());
+        assertEquals(200, header.height());
+        assertEquals(24, header.bitsPerPixel());
+    }
+
+    @Test
+    void checkImage_WidthAboveLimit_ThrowsException() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(1001, 1));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> ImageUtils.checkImage(file, LIMITS));
+
+        assertEquals(ErrorCode.IMAGE_DIMENSIONS_TOO_LARGE, ex.getErrorCode());
+    }
+
+    @Test
+    void checkImage_PixelsAboveLimit_ThrowsException() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", png(1000, 501));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> ImageUtils.checkImage(file, LIMITS));
+
+        assertEquals(ErrorCode.IMAGE_DIMENSIONS_TOO_LARGE, ex.getErrorCode());
+    }
+
+    @Test
+    void checkImage_TruncatedRaster_PassesHeaderValidation() throws Exception {
+        byte[] png = png(300, 200);
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", Arrays.copyOf(png, png.length - 20));
+
+        assertEquals(300, ImageUtils.checkImage(file, LIMITS).width());
+    }
+
+    @Test
+    void checkImage_GifRenamedToPng_ThrowsException() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.png", "image/png", encode("gif", 10, 10));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> ImageUtils.checkImage(file, LIMITS));
+
+        assertEquals(ErrorCode.FILE_FORMAT_NOT_SUPPORTED, ex.getErrorCode());
+    }
+
+    @Test
+    void checkImage_BmpRenamedToJpg_ThrowsException() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("image", "image.jpg", "image/jpeg", encode("bmp", 10, 10));
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> ImageUtils.checkImage(file, LIMITS));
+
+        assertEquals(ErrorCode.FILE_FORMAT_NOT_SUPPORTED, ex.getErrorCode());
+    }
+
+    @Test
+    void detectContentType_ShouldRecognizePng() throws Exception {
+        assertEquals("image/png", ImageUtils.detectContentType(png(1, 1)));
+        assertEquals("image/jpeg", ImageUtils.detectContentType(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}));
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        return encode("png", width, height);
+    }
+
+    private byte[] encode(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, os);
+        return os.toByteArray();
+    }
+}